@@ -0,0 +1,101 @@
+package com.sg.obs.benchmark;
+
+import com.sg.obs.base.utils.CellFormats;
+import com.sg.obs.base.utils.DatetimeUtils;
+import com.sg.obs.itemmanagement.domain.ItemDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting the item grid's price, stock and date cells for one 100-row page. Run with {@code -prof gc} for
+ * allocations per page ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellFormatBenchmark {
+
+    private static final Locale LOCALE = Locale.US;
+
+    private final List<ItemDto> page = new ArrayList<>();
+    private final List<String[]> displayRows = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        var now = LocalDateTime.of(2026, 1, 1, 9, 30);
+        for (int i = 0; i < 100; i++) {
+            page.add(new ItemDto((long) i, "Item " + i, 1_000 + i * 12.5, i * 7, now.minusHours(i), now.minusMinutes(i)));
+        }
+        page.forEach(item -> displayRows.add(format(item)));
+    }
+
+    /**
+     * What every render used to cost: a formatter per date cell and numbers via {@code toString}.
+     */
+    @Benchmark
+    public void perCellPattern(Blackhole blackhole) {
+        for (var item : page) {
+            blackhole.consume(String.valueOf(item.getPrice()));
+            blackhole.consume(legacyFormat(item.getCreatedDate()));
+            blackhole.consume(legacyFormat(item.getUpdatedDate()));
+            blackhole.consume(String.valueOf(item.getStock()));
+        }
+    }
+
+    /**
+     * A fetch: every row formatted once with cached formatters.
+     */
+    @Benchmark
+    public void cachedFormatters(Blackhole blackhole) {
+        for (var item : page) {
+            blackhole.consume(format(item));
+        }
+    }
+
+    /**
+     * A re-render of rows already formatted for the current fetch.
+     */
+    @Benchmark
+    public void precomputedRerender(Blackhole blackhole) {
+        for (var cells : displayRows) {
+            for (var cell : cells) {
+                blackhole.consume(cell);
+            }
+        }
+    }
+
+    private static String[] format(ItemDto item) {
+        return new String[]{
+                CellFormats.number(item.getPrice(), "#,##0.00", LOCALE),
+                DatetimeUtils.formatDateShort(item.getCreatedDate(), LOCALE),
+                DatetimeUtils.formatDateShort(item.getUpdatedDate(), LOCALE),
+                CellFormats.number(item.getStock(), "#,##0", LOCALE)
+        };
+    }
+
+    private static String legacyFormat(LocalDateTime dateTime) {
+        return Optional.ofNullable(dateTime)
+                .map(date -> date.format(DateTimeFormatter.ofPattern(DatetimeUtils.DATE_SHORT_PATTERN)))
+                .orElse("");
+    }
+}
@@ -0,0 +1,130 @@
+package com.sg.obs.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sg.obs.base.client.ApiEnvelope;
+import com.sg.obs.base.config.MapperConfig;
+import com.sg.obs.inventorymanagement.domain.InventoryDetails;
+import com.sg.obs.itemmanagement.domain.ItemDto;
+import com.sg.obs.itemmanagement.domain.PageWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding backend pages of {@link ItemDto} and {@link InventoryDetails} at several page sizes: straight into the typed
+ * envelope with the application's mapper (Blackbird), the same without Blackbird, and the old map round trip. Run with
+ * {@code -prof gc} for allocations per decoded page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvelopeDecodeBenchmark {
+
+    @Param({"5", "100", "10000"})
+    public int pageSize;
+
+    private ObjectMapper blackbird;
+    private ObjectMapper reflective;
+
+    private JavaType itemPage;
+    private JavaType inventoryPage;
+
+    private byte[] itemJson;
+    private byte[] inventoryJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        blackbird = new MapperConfig().objectMapper();
+        reflective = JsonMapper.builder()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .addModule(new JavaTimeModule())
+                .build();
+        itemPage = blackbird.getTypeFactory().constructType(new TypeReference<ApiEnvelope<PageWrapper<ItemDto>>>() {
+        });
+        inventoryPage = blackbird.getTypeFactory().constructType(
+                new TypeReference<ApiEnvelope<PageWrapper<InventoryDetails>>>() {
+                });
+
+        var now = LocalDateTime.of(2026, 1, 1, 9, 30, 0);
+        List<ItemDto> items = new ArrayList<>(pageSize);
+        List<InventoryDetails> inventories = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            items.add(new ItemDto((long) i, "Item " + i, 1_000 + i * 12.5, i * 7, now.minusHours(i), now));
+            inventories.add(new InventoryDetails((long) i, (long) i % 200, "Item " + i % 200, 1 + i % 50,
+                    i % 3 == 0 ? "W" : "T", now.minusMinutes(i), now.minusMinutes(i)));
+        }
+        itemJson = blackbird.writeValueAsBytes(Map.of("data", page(items)));
+        inventoryJson = blackbird.writeValueAsBytes(Map.of("data", page(inventories)));
+    }
+
+    @Benchmark
+    public PageWrapper<ItemDto> itemsTyped() throws IOException {
+        ApiEnvelope<PageWrapper<ItemDto>> envelope = blackbird.readValue(itemJson, itemPage);
+        return envelope.requireData();
+    }
+
+    @Benchmark
+    public PageWrapper<ItemDto> itemsTypedWithoutBlackbird() throws IOException {
+        ApiEnvelope<PageWrapper<ItemDto>> envelope = reflective.readValue(itemJson, itemPage);
+        return envelope.requireData();
+    }
+
+    @Benchmark
+    public PageWrapper<ItemDto> itemsMapRoundTrip() throws IOException {
+        Map<String, Object> envelope = blackbird.readValue(itemJson, new TypeReference<>() {
+        });
+        return blackbird.convertValue(envelope.get("data"), new TypeReference<>() {
+        });
+    }
+
+    @Benchmark
+    public PageWrapper<InventoryDetails> inventoriesTyped() throws IOException {
+        ApiEnvelope<PageWrapper<InventoryDetails>> envelope = blackbird.readValue(inventoryJson, inventoryPage);
+        return envelope.requireData();
+    }
+
+    @Benchmark
+    public PageWrapper<InventoryDetails> inventoriesTypedWithoutBlackbird() throws IOException {
+        ApiEnvelope<PageWrapper<InventoryDetails>> envelope = reflective.readValue(inventoryJson, inventoryPage);
+        return envelope.requireData();
+    }
+
+    @Benchmark
+    public PageWrapper<InventoryDetails> inventoriesMapRoundTrip() throws IOException {
+        Map<String, Object> envelope = blackbird.readValue(inventoryJson, new TypeReference<>() {
+        });
+        return blackbird.convertValue(envelope.get("data"), new TypeReference<>() {
+        });
+    }
+
+    private static <T> PageWrapper<T> page(List<T> content) {
+        var metadata = new PageWrapper.PageMetadata();
+        metadata.setSize(content.size());
+        metadata.setTotalElements(content.size() * 10L);
+        metadata.setTotalPages(10);
+        return new PageWrapper<>(content, metadata);
+    }
+}
@@ -0,0 +1,226 @@
+package com.sg.obs.loadtest;
+
+import com.github.mvysny.kaributesting.v10.LocatorJ;
+import com.github.mvysny.kaributesting.v10.MockVaadin;
+import com.sg.obs.TestcontainersConfiguration;
+import com.sg.obs.base.config.BackendClientProperties;
+import com.sg.obs.base.ui.component.PaginatedGrid;
+import com.sg.obs.inventorymanagement.service.InventoryService;
+import com.sg.obs.inventorymanagement.ui.view.InventoryManagementView;
+import com.sg.obs.itemmanagement.service.ItemService;
+import com.sg.obs.itemmanagement.service.ItemStockSummaries;
+import com.sg.obs.itemmanagement.ui.view.ItemManagementView;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.textfield.TextField;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@code loadtest.users} simulated users, each with its own Vaadin session, through the item and inventory views
+ * against the stand-in backend, and reports p50/p95/p99 latency per interaction and retained heap per session.
+ * <p>
+ * Views run in-process on mocked sessions (Karibu-Testing): an interaction's latency runs from the user's action until
+ * the grid has rendered the rows it loaded, including backend calls, {@code ui.access} and the round trip, but not the
+ * network or the browser. The stand-in is sized with the usual {@code obs.standin.*} properties:
+ * <pre>
+ * mvn -Ploadtest test -Dloadtest.users=200 -Dloadtest.iterations=20 \
+ *     -Dobs.standin.items=1000000 -Dobs.standin.inventories-per-item=50 -Dobs.standin.latency=40ms \
+ *     -Dobs.standin.jitter=20ms -Dobs.standin.count-scan-cost=0ms
+ * </pre>
+ */
+@Slf4j
+@Import(TestcontainersConfiguration.class)
+@ActiveProfiles({"prod", "standin"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = {
+        "obs.standin.port=18878",
+        "obs.backend.base-url=http://localhost:18878/v1"
+})
+class ViewLoadHarness {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 20);
+    private static final int ITERATIONS = Integer.getInteger("loadtest.iterations", 10);
+    private static final Duration INTERACTION_TIMEOUT = Duration.parse(
+            System.getProperty("loadtest.interaction-timeout", "PT30S"));
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemStockSummaries stockSummaries;
+
+    @Autowired
+    InventoryService inventoryService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    BackendClientProperties clientProperties;
+
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void views_under_concurrent_sessions() throws InterruptedException {
+        long baseline = usedHeap();
+        var ready = new CountDownLatch(USERS);
+        var release = new CountDownLatch(1);
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        for (int user = 0; user < USERS; user++) {
+            users.execute(() -> {
+                try {
+                    simulateUser(ready, release);
+                } catch (Throwable e) {
+                    failures.add(e);
+                    ready.countDown();
+                }
+            });
+        }
+        // Every session is still open here, so the heap now holds all of them
+        ready.await();
+        long perSession = (usedHeap() - baseline) / USERS;
+        release.countDown();
+        users.shutdown();
+        assertThat(users.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        report(perSession);
+        assertThat(failures).isEmpty();
+    }
+
+    private void simulateUser(CountDownLatch ready, CountDownLatch release) throws InterruptedException {
+        MockVaadin.setup();
+        try {
+            var random = ThreadLocalRandom.current();
+            var ui = UI.getCurrent();
+
+            long opened = System.nanoTime();
+            var items = new ItemManagementView(itemService, stockSummaries, clientProperties);
+            var itemLoads = rowsLoaded(items);
+            ui.add(items);
+            await("items.open", itemLoads, 0, opened);
+            var filterField = LocatorJ._get(items, TextField.class, spec -> spec.withLabel("Filter by Name or ID"));
+            for (int i = 0; i < ITERATIONS; i++) {
+                measure("items.next", itemLoads, () -> LocatorJ._click(button(items, "Next")));
+                measure("items.filter", itemLoads, () -> LocatorJ._setValue(filterField,
+                        "Item " + random.nextInt(1, 100)));
+                measure("items.clearFilter", itemLoads, () -> LocatorJ._setValue(filterField, ""));
+            }
+            ui.remove(items);
+
+            opened = System.nanoTime();
+            var inventories = new InventoryManagementView(inventoryService, itemService, meterRegistry,
+                    clientProperties);
+            var inventoryLoads = rowsLoaded(inventories);
+            ui.add(inventories);
+            await("inventories.open", inventoryLoads, 0, opened);
+            var itemIdField = LocatorJ._get(inventories, TextField.class, spec -> spec.withLabel("Item ID"));
+            for (int i = 0; i < ITERATIONS; i++) {
+                measure("inventories.next", inventoryLoads, () -> LocatorJ._click(button(inventories, "Next")));
+                measure("inventories.item", inventoryLoads, () -> LocatorJ._setValue(itemIdField,
+                        String.valueOf(random.nextInt(1, 200))));
+                measure("inventories.allItems", inventoryLoads, () -> LocatorJ._setValue(itemIdField, ""));
+            }
+
+            ready.countDown();
+            release.await();
+        } finally {
+            MockVaadin.tearDown();
+        }
+    }
+
+    /**
+     * Counts the grid's rendered loads, which is what every measured interaction waits for.
+     */
+    @SuppressWarnings("unchecked")
+    private static AtomicInteger rowsLoaded(Component view) {
+        var loads = new AtomicInteger();
+        PaginatedGrid<Object> grid = LocatorJ._get(view, PaginatedGrid.class);
+        grid.addRowsLoadedListener(rows -> loads.incrementAndGet());
+        return loads;
+    }
+
+    private static Button button(Component view, String text) {
+        return LocatorJ._get(view, Button.class, spec -> spec.withText(text));
+    }
+
+    private void measure(String name, AtomicInteger loads, Runnable interaction) {
+        int before = loads.get();
+        long started = System.nanoTime();
+        interaction.run();
+        await(name, loads, before, started);
+    }
+
+    /**
+     * Processes the session's pending {@code ui.access} tasks, as a client round trip would, until the grid has
+     * rendered a load after the {@code before}th, and records the time since {@code started}.
+     */
+    private void await(String name, AtomicInteger loads, int before, long started) {
+        long deadline = started + INTERACTION_TIMEOUT.toNanos();
+        while (loads.get() == before) {
+            MockVaadin.clientRoundtrip();
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(name + " did not render within " + INTERACTION_TIMEOUT);
+            }
+            LockSupport.parkNanos(200_000);
+        }
+        latencies.computeIfAbsent(name, key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(System.nanoTime() - started);
+    }
+
+    private void report(long heapPerSession) {
+        var report = new StringBuilder(String.format("%n%-22s %7s %9s %9s %9s %9s%n",
+                "interaction", "count", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        new TreeMap<>(latencies).forEach((name, samples) -> {
+            var sorted = samples.stream().sorted().toList();
+            report.append(String.format("%-22s %7d %9.1f %9.1f %9.1f %9.1f%n", name, sorted.size(),
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)), millis(sorted.getLast())));
+        });
+        report.append(String.format("%d users x %d iterations, ~%d KiB retained heap per session%n",
+                USERS, ITERATIONS, heapPerSession / 1024));
+        log.info(report.toString());
+        failures.forEach(failure -> log.error("Simulated user failed", failure));
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static long usedHeap() {
+        var memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -1,15 +1,19 @@
 package com.sg.obs;
 
 import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import com.vaadin.flow.theme.Theme;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
 
 import java.time.Clock;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @Theme("default")
+@Push
 public class Application implements AppShellConfigurator {
 
     @Bean
@@ -0,0 +1,15 @@
+package com.sg.obs.base.client;
+
+/**
+ * The {@code {"data": ...}} envelope of every successful backend response. Decoding straight into
+ * {@code ApiEnvelope<T>} reads the payload once, as a {@code T}, instead of into a map that is converted again.
+ */
+public record ApiEnvelope<T>(T data) {
+
+    public T requireData() {
+        if (data == null) {
+            throw new IllegalStateException("Backend response has no data");
+        }
+        return data;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sg.obs.base.client;
+
+import java.util.Map;
+
+/**
+ * Logical backend operations. {@link #id()} names an operation in metrics and per-endpoint settings, {@link #backend()}
+ * groups operations that share a bulkhead and circuit breaker.
+ * <p>
+ * WebClient requests carry their operation as the {@link #ATTRIBUTE} request attribute, set with
+ * {@code .attributes(ITEMS_LIST::tag)}, so the client's filters can tell calls to the same path apart.
+ */
+public enum BackendEndpoint {
+
+    ITEMS_LIST("items.list", "items"),
+    ITEMS_CREATE("items.create", "items"),
+    ITEMS_UPDATE("items.update", "items"),
+    ITEMS_DELETE("items.delete", "items"),
+    INVENTORIES_LIST("inventories.list", "inventories"),
+    INVENTORIES_BY_ITEM("inventories.byItem", "inventories"),
+    INVENTORIES_SUMMARY("inventories.summary", "inventories"),
+    INVENTORIES_SUMMARY_BATCH("inventories.summaryBatch", "inventories"),
+    INVENTORIES_SAVE("inventories.save", "inventories");
+
+    public static final String ATTRIBUTE = BackendEndpoint.class.getName();
+
+    private final String id;
+    private final String backend;
+
+    BackendEndpoint(String id, String backend) {
+        this.id = id;
+        this.backend = backend;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String backend() {
+        return backend;
+    }
+
+    public void tag(Map<String, Object> attributes) {
+        attributes.put(ATTRIBUTE, this);
+    }
+}
@@ -0,0 +1,179 @@
+package com.sg.obs.base.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sg.obs.base.config.BackendClientProperties;
+import com.sg.obs.base.config.CacheProperties;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.UnaryOperator;
+
+/**
+ * Guards backend calls with a per-endpoint time limit, a per-backend bulkhead (so item calls cannot use up the
+ * capacity inventory calls need) and a per-backend circuit breaker, which only counts {@link TransientFailure}s. The
+ * limits are configured under {@code resilience4j.*}. Reads are additionally hedged and retried within a budget;
+ * writes never are.
+ */
+@Slf4j
+@Component
+public class BackendResilience {
+
+    private static final TransientFailure TRANSIENT = new TransientFailure();
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final TimeLimiterRegistry timeLimiters;
+
+    private final Cache<String, Object> lastKnownGood;
+
+    private final BackendClientProperties.Retry retrySettings;
+    private final BackendClientProperties.Hedging hedgingSettings;
+    private final RetryBudget retryBudget;
+    private final Map<BackendEndpoint, LatencyWindow> latencies = new EnumMap<>(BackendEndpoint.class);
+    private final MeterRegistry meterRegistry;
+
+    public BackendResilience(CircuitBreakerRegistry circuitBreakers,
+                             BulkheadRegistry bulkheads,
+                             TimeLimiterRegistry timeLimiters,
+                             BackendClientProperties clientProperties,
+                             CacheProperties cacheProperties,
+                             MeterRegistry meterRegistry) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.timeLimiters = timeLimiters;
+        this.meterRegistry = meterRegistry;
+        this.retrySettings = clientProperties.retry();
+        this.hedgingSettings = clientProperties.hedging();
+        this.retryBudget = new RetryBudget(retrySettings.budgetRatio(), retrySettings.budgetMaxTokens());
+        for (var endpoint : BackendEndpoint.values()) {
+            latencies.put(endpoint, new LatencyWindow(hedgingSettings.sampleSize()));
+        }
+        var settings = cacheProperties.lastKnownGood();
+        this.lastKnownGood = Caffeine.newBuilder()
+                .maximumSize(settings.maxSize())
+                .expireAfterWrite(settings.expireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lastKnownGood, "backend.last-known-good");
+    }
+
+    /**
+     * Guards an idempotent read. Successful results are remembered under {@code key}; when the call fails, times out or
+     * is rejected, the remembered result is returned after passing it through {@code asStale}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> read(BackendEndpoint endpoint, String key, Mono<T> call, UnaryOperator<T> asStale) {
+        return Mono.defer(() -> {
+                    retryBudget.deposit();
+                    return Mono.defer(() -> guard(endpoint, hedged(endpoint, call))).retryWhen(retry(endpoint));
+                })
+                .doOnNext(result -> lastKnownGood.put(key, result))
+                .onErrorResume(error -> {
+                    var stale = (T) lastKnownGood.getIfPresent(key);
+                    if (stale == null) {
+                        return Mono.error(error);
+                    }
+                    log.warn("Serving stale {} for {}: {}", endpoint.id(), key, error.toString());
+                    return Mono.just(asStale.apply(stale));
+                });
+    }
+
+    public <T> Mono<T> write(BackendEndpoint endpoint, Mono<T> call) {
+        return guard(endpoint, call);
+    }
+
+    /**
+     * Sends a second request once the first is slower than the configured percentile of recent latencies; whichever
+     * answers first wins and the other is cancelled. A transient failure of one does not end the read while the other
+     * may still succeed; any other failure (a 4xx, a decoding error) is the answer, and ends it without a hedge.
+     */
+    private <T> Mono<T> hedged(BackendEndpoint endpoint, Mono<T> call) {
+        var primary = timed(endpoint, call);
+        if (!hedgingSettings.enabled()) {
+            return primary;
+        }
+        return latencies.get(endpoint).percentile(hedgingSettings.percentile(), hedgingSettings.minSamples())
+                .map(p -> p.compareTo(hedgingSettings.minDelay()) < 0 ? hedgingSettings.minDelay() : p)
+                .map(delay -> Mono.firstWithValue(answer(primary), answer(Mono.delay(delay)
+                                .then(Mono.defer(() -> {
+                                    counter("obs.backend.requests.hedged", endpoint).increment();
+                                    return timed(endpoint, call);
+                                }))))
+                        .onErrorResume(NoSuchElementException.class, BackendResilience::<Answer<T>>neitherAnswered)
+                        .flatMap(Answer::unwrap))
+                .orElse(primary);
+    }
+
+    /**
+     * One request's value or non-transient failure, so that either ends the race; transient failures stay errors.
+     */
+    private record Answer<T>(T value, Throwable failure) {
+
+        Mono<T> unwrap() {
+            return failure == null ? Mono.just(value) : Mono.error(failure);
+        }
+    }
+
+    private static <T> Mono<Answer<T>> answer(Mono<T> request) {
+        return request.map(value -> new Answer<T>(value, null))
+                .onErrorResume(error -> !TRANSIENT.test(error), error -> Mono.just(new Answer<>(null, error)));
+    }
+
+    /**
+     * Both requests failed or came back empty. The primary's error is passed on, so retries and the stale fallback see
+     * the backend's failure rather than Reactor's.
+     */
+    private static <T> Mono<T> neitherAnswered(NoSuchElementException error) {
+        var failures = error.getCause() != null ? Exceptions.unwrapMultiple(error.getCause())
+                : List.of(error.getSuppressed());
+        return failures.isEmpty() ? Mono.empty() : Mono.error(failures.getFirst());
+    }
+
+    /**
+     * Records how long the request took however it ended: a value, an error, a time-out or being cancelled as the
+     * slower of a hedged pair. Recording only values would leave out exactly the slow requests and hedge too early.
+     */
+    private <T> Mono<T> timed(BackendEndpoint endpoint, Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doFinally(signal -> latencies.get(endpoint).record(System.nanoTime() - start));
+        });
+    }
+
+    private Retry retry(BackendEndpoint endpoint) {
+        return Retry.backoff(retrySettings.maxAttempts(), retrySettings.minBackoff())
+                .maxBackoff(retrySettings.maxBackoff())
+                .jitter(retrySettings.jitter())
+                .filter(error -> TRANSIENT.test(error) && retryBudget.tryWithdraw())
+                .doBeforeRetry(signal -> counter("obs.backend.requests.retried", endpoint).increment())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private Counter counter(String name, BackendEndpoint endpoint) {
+        return Counter.builder(name).tag("endpoint", endpoint.id()).register(meterRegistry);
+    }
+
+    private <T> Mono<T> guard(BackendEndpoint endpoint, Mono<T> call) {
+        return call
+                .transformDeferred(TimeLimiterOperator.of(timeLimiters.timeLimiter(endpoint.id())))
+                .transformDeferred(BulkheadOperator.of(bulkheads.bulkhead(endpoint.backend())))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakers.circuitBreaker(endpoint.backend())));
+    }
+}
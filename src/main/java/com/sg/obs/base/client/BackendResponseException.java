@@ -0,0 +1,21 @@
+package com.sg.obs.base.client;
+
+import lombok.Getter;
+
+/**
+ * A non-2xx answer from the backend, carrying the message of its {@code ApiErrorResponse}.
+ */
+@Getter
+public class BackendResponseException extends RuntimeException {
+
+    private final int status;
+
+    public BackendResponseException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public boolean isTransient() {
+        return status >= 500 || status == 429;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sg.obs.base.client;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The most recent response times of one endpoint, used to decide when a read is late enough to hedge.
+ */
+class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * Empty until {@code minSamples} latencies have been recorded.
+     */
+    Optional<Duration> percentile(double percentile, int minSamples) {
+        long[] sorted;
+        synchronized (this) {
+            if (count < minSamples || count == 0) {
+                return Optional.empty();
+            }
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return Optional.of(Duration.ofNanos(sorted[Math.max(0, index)]));
+    }
+}
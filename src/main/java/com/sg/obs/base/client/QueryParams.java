@@ -0,0 +1,46 @@
+package com.sg.obs.base.client;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.web.util.UriBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Query parameters of backend reads. Sorts use the Spring Data convention the backend understands: one
+ * {@code sort=property,asc|desc} parameter per order.
+ */
+public final class QueryParams {
+
+    private QueryParams() {
+    }
+
+    /**
+     * {@code params} plus the {@code sort} parameters of {@code sort}, if it is sorted.
+     */
+    public static Map<String, Object> withSort(Map<String, ?> params, Sort sort) {
+        Map<String, Object> all = new HashMap<>(params);
+        if (sort.isSorted()) {
+            all.put("sort", sort.stream()
+                    .map(order -> order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT))
+                    .toList());
+        }
+        return all;
+    }
+
+    /**
+     * Adds {@code params} to {@code uriBuilder}; collection values become repeated parameters.
+     */
+    public static UriBuilder addTo(UriBuilder uriBuilder, Map<String, ?> params) {
+        params.forEach((name, value) -> {
+            if (value instanceof Collection<?> values) {
+                uriBuilder.queryParam(name, values);
+            } else {
+                uriBuilder.queryParam(name, value);
+            }
+        });
+        return uriBuilder;
+    }
+}
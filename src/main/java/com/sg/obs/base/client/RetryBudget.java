@@ -0,0 +1,36 @@
+package com.sg.obs.base.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting retries to a fraction of the requests sent.
+ */
+class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    RetryBudget(double ratio, int maxTokens) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = maxTokens * SCALE;
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    void deposit() {
+        tokens.updateAndGet(current -> Math.min(capacity, current + deposit));
+    }
+
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
@@ -0,0 +1,76 @@
+package com.sg.obs.base.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces identical concurrent backend reads: while a request for a key is in flight, later callers attach to the
+ * same result instead of sending their own. Only use it for idempotent GETs.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Builds a key that does not depend on the order the query parameters were given in.
+     */
+    public static String key(String path, Map<String, ?> queryParams) {
+        return path + new TreeMap<>(queryParams).entrySet().stream()
+                .map(param -> param.getKey() + "=" + param.getValue())
+                .collect(Collectors.joining("&", "?", ""));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(BackendEndpoint endpoint, String key, Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            var leader = new AtomicBoolean();
+            var flight = inFlight.computeIfAbsent(key, k -> {
+                leader.set(true);
+                var self = new AtomicReference<Mono<?>>();
+                // only its own entry: after a forget, a newer request may be in flight under the same key
+                var shared = request.get()
+                        .doFinally(signal -> inFlight.remove(k, self.get()))
+                        .share();
+                self.set(shared);
+                return shared;
+            });
+            if (!leader.get()) {
+                coalesced(endpoint).increment();
+            }
+            return (Mono<T>) flight;
+        });
+    }
+
+    /**
+     * Lets later reads of keys starting with {@code pathPrefix} send their own request instead of attaching to one in
+     * flight, which may have been sent before a write and answer with what it replaced. Call it when the write
+     * succeeds, next to invalidating the caches; callers already attached still get the older answer.
+     */
+    public void forget(String pathPrefix) {
+        inFlight.keySet().removeIf(key -> key.startsWith(pathPrefix));
+    }
+
+    private Counter coalesced(BackendEndpoint endpoint) {
+        return Counter.builder("obs.backend.requests.coalesced")
+                .description("Backend reads served by attaching to an identical request already in flight")
+                .tag("endpoint", endpoint.id())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,18 @@
+package com.sg.obs.base.client;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * A page served from the last known good response because the backend could not answer.
+ */
+public class StalePage<T> extends PageImpl<T> {
+
+    private StalePage(Page<T> page) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+    }
+
+    public static <T> Page<T> of(Page<T> page) {
+        return page instanceof StalePage<T> ? page : new StalePage<>(page);
+    }
+}
@@ -0,0 +1,18 @@
+package com.sg.obs.base.client;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * A slice served from the last known good response because the backend could not answer.
+ */
+public class StaleSlice<T> extends SliceImpl<T> {
+
+    private StaleSlice(Slice<T> slice) {
+        super(slice.getContent(), slice.getPageable(), slice.hasNext());
+    }
+
+    public static <T> Slice<T> of(Slice<T> slice) {
+        return slice instanceof StaleSlice<T> ? slice : new StaleSlice<>(slice);
+    }
+}
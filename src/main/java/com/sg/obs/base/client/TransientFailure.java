@@ -0,0 +1,21 @@
+package com.sg.obs.base.client;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+
+/**
+ * Connection problems, time-outs and 5xx/429 answers: the failures that say something about the backend's health.
+ * Decides what reads retry, and is the circuit breakers' {@code record-failure-predicate}, so a 4xx answer to a bad
+ * request cannot open the circuit for everyone. Open circuits and full bulkheads are deliberately excluded.
+ */
+public class TransientFailure implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable error) {
+        return error instanceof TimeoutException
+                || error instanceof WebClientRequestException
+                || error instanceof BackendResponseException response && response.isTransient();
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains the building blocks shared by every call to the inventory backend.
+ */
+package com.sg.obs.base.client;
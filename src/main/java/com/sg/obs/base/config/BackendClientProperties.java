@@ -0,0 +1,93 @@
+package com.sg.obs.base.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the shared HTTP client used to talk to the inventory backend ({@code obs.backend.*}).
+ */
+@ConfigurationProperties(prefix = "obs.backend")
+public record BackendClientProperties(
+        @DefaultValue("http://localhost:8878/v1") String baseUrl,
+        @DefaultValue({"H2C", "HTTP11"}) List<HttpProtocol> protocols,
+        @DefaultValue Pool pool,
+        @DefaultValue Timeouts timeouts,
+        @DefaultValue Logging logging,
+        @DefaultValue Retry retry,
+        @DefaultValue Hedging hedging,
+        @DefaultValue Bulk bulk,
+        @DefaultValue Paging paging) {
+
+    public record Pool(
+            @DefaultValue("200") int maxConnections,
+            @DefaultValue("1000") int pendingAcquireMaxCount,
+            @DefaultValue("5s") Duration pendingAcquireTimeout,
+            @DefaultValue("30s") Duration maxIdleTime,
+            @DefaultValue("5m") Duration maxLifeTime,
+            @DefaultValue("30s") Duration evictInBackground) {
+    }
+
+    public record Timeouts(
+            @DefaultValue("2s") Duration connect,
+            @DefaultValue("10s") Duration response,
+            @DefaultValue("10s") Duration write) {
+    }
+
+    /**
+     * Every call logs status, latency and size; a body excerpt of at most {@code maxBodyBytes} is only kept for the
+     * {@code sampleRate} fraction of calls and for calls slower than {@code slowThreshold} or failed.
+     */
+    public record Logging(
+            @DefaultValue("0.01") double sampleRate,
+            @DefaultValue("1s") Duration slowThreshold,
+            @DefaultValue("1024") int maxBodyBytes) {
+    }
+
+    /**
+     * Retries of idempotent reads. Each read adds {@code budgetRatio} of a token to a bucket capped at
+     * {@code budgetMaxTokens} and each retry spends a whole token, so retries stay a bounded fraction of traffic when the
+     * backend is struggling.
+     */
+    public record Retry(
+            @DefaultValue("2") int maxAttempts,
+            @DefaultValue("50ms") Duration minBackoff,
+            @DefaultValue("500ms") Duration maxBackoff,
+            @DefaultValue("0.5") double jitter,
+            @DefaultValue("0.1") double budgetRatio,
+            @DefaultValue("20") int budgetMaxTokens) {
+    }
+
+    /**
+     * Hedging of idempotent reads: when a read has not answered after the {@code percentile} of the last
+     * {@code sampleSize} latencies of its endpoint (but at least {@code minDelay}), a second identical request is sent
+     * and the first answer wins.
+     */
+    public record Hedging(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("0.95") double percentile,
+            @DefaultValue("20ms") Duration minDelay,
+            @DefaultValue("256") int sampleSize,
+            @DefaultValue("50") int minSamples) {
+    }
+
+    /**
+     * Number of writes a bulk receipt keeps in flight at once.
+     */
+    public record Bulk(@DefaultValue("16") int concurrency) {
+    }
+
+    /**
+     * Paging contracts beyond the backend's {@code page}/{@code size}. With {@code countFree}, item grids request
+     * {@code offset}/{@code limit}/{@code count=false} slices and show an approximate total; with {@code keyset}, the
+     * inventory history is paged by {@code direction}/{@code cursorDate}/{@code cursorId}. Only turn them on for a
+     * backend that understands those parameters (the stand-in does).
+     */
+    public record Paging(
+            @DefaultValue("false") boolean countFree,
+            @DefaultValue("false") boolean keyset) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.sg.obs.base.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Sizes and lifetimes of the in-memory caches in front of backend reads ({@code obs.cache.*}).
+ */
+@ConfigurationProperties(prefix = "obs.cache")
+public record CacheProperties(
+        @DefaultValue Items items,
+        @DefaultValue Lookups lookups,
+        @DefaultValue Counts counts,
+        @DefaultValue Summaries summaries,
+        @DefaultValue LastKnownGood lastKnownGood) {
+
+    /**
+     * Item pages are served stale once {@code refreshAfterWrite} has passed while a background reload runs, and are
+     * dropped entirely after {@code expireAfterWrite}.
+     */
+    public record Items(
+            @DefaultValue("500") long maxSize,
+            @DefaultValue("10s") Duration refreshAfterWrite,
+            @DefaultValue("5m") Duration expireAfterWrite) {
+    }
+
+    /**
+     * Item pickers. The first {@code prefetch} matches of a filter are fetched in one request; when that covers every
+     * match, longer filters typed after it are narrowed locally without another request.
+     */
+    public record Lookups(
+            @DefaultValue("1000") long maxSize,
+            @DefaultValue("100") int prefetch,
+            @DefaultValue("1m") Duration expireAfterWrite) {
+    }
+
+    /**
+     * Approximate totals shown by count-free paging. They only size the pager, so minutes of staleness are fine and
+     * spare the backend a count per page.
+     */
+    public record Counts(
+            @DefaultValue("1000") long maxSize,
+            @DefaultValue("5m") Duration expireAfterWrite) {
+    }
+
+    /**
+     * Inventory summaries are invalidated locally on every save; {@code expireAfterWrite} bounds how long other
+     * sessions and nodes may see a total that predates someone else's save.
+     */
+    public record Summaries(
+            @DefaultValue("10000") long maxSize,
+            @DefaultValue("5s") Duration expireAfterWrite) {
+    }
+
+    /**
+     * Last successful response per read, used as a fallback while the backend is failing.
+     */
+    public record LastKnownGood(
+            @DefaultValue("5000") long maxSize,
+            @DefaultValue("1h") Duration expireAfterWrite) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.sg.obs.base.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the Vaadin server-side metrics ({@code obs.ui.metrics.*}). A session's serialized size is measured at
+ * most once per {@code sessionSizeInterval}, holding its lock while it is written out; zero turns the measurement off.
+ */
+@ConfigurationProperties(prefix = "obs.ui.metrics")
+public record UiMetricsProperties(
+        @DefaultValue("5m") Duration sessionSizeInterval) {
+}
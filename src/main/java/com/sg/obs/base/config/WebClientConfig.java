@@ -0,0 +1,63 @@
+package com.sg.obs.base.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * One pool for every backend call, so sessions share keep-alive connections instead of each service falling back
+     * to the Reactor Netty defaults. Pool gauges are published under {@code reactor.netty.connection.provider.*}.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider backendConnectionProvider(BackendClientProperties properties) {
+        var pool = properties.pool();
+        return ConnectionProvider.builder("obs-backend")
+                .maxConnections(pool.maxConnections())
+                .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                .maxIdleTime(pool.maxIdleTime())
+                .maxLifeTime(pool.maxLifeTime())
+                .evictInBackground(pool.evictInBackground())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient backendWebClient(WebClient.Builder webClientBuilder,
+                                      ConnectionProvider backendConnectionProvider,
+                                      BackendClientProperties properties,
+                                      ObjectMapper mapper,
+                                      MeterRegistry meterRegistry) {
+        var timeouts = properties.timeouts();
+        HttpClient httpClient = HttpClient.create(backendConnectionProvider)
+                .protocol(properties.protocols().toArray(HttpProtocol[]::new))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeouts.connect().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                // Also bounds every read while a response is streaming, and is lifted once the connection is released;
+                // a ReadTimeoutHandler would stay on the pooled channel and close idle keep-alive connections
+                .responseTimeout(timeouts.response())
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new WriteTimeoutHandler(timeouts.write().toMillis(), TimeUnit.MILLISECONDS)));
+
+        return webClientBuilder
+                .baseUrl(properties.baseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(WebClientLoggingFilter.logAndHandleErrors(mapper, properties.logging()))
+                // Inside the logging filter, so failed calls are still timed with their HTTP status
+                .filter(WebClientMetricsFilter.recordMetrics(meterRegistry))
+                .build();
+    }
+}
@@ -1,46 +1,140 @@
 package com.sg.obs.base.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sg.obs.base.client.BackendResponseException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
 @Slf4j
 public class WebClientLoggingFilter {
 
-    public static ExchangeFilterFunction logAndHandleErrors(ObjectMapper objectMapper) {
-        return ExchangeFilterFunction.ofResponseProcessor(response -> {
-            if (response.statusCode().is2xxSuccessful()) {
-                return logSuccess(response);
-            } else {
+    private WebClientLoggingFilter() {
+    }
+
+    public static ExchangeFilterFunction logAndHandleErrors(ObjectMapper objectMapper,
+                                                           BackendClientProperties.Logging settings) {
+        return (request, next) -> {
+            long start = System.nanoTime();
+            return next.exchange(request).flatMap(response -> {
+                if (response.statusCode().is2xxSuccessful()) {
+                    return Mono.just(logSuccess(request, response, start, settings));
+                }
                 return response.bodyToMono(String.class)
                         .defaultIfEmpty("No body")
                         .flatMap(body -> {
+                            log.warn("❌ {} {} - HTTP {} in {} ms: {}", request.method(), request.url().getPath(),
+                                    response.statusCode().value(), elapsedMillis(start),
+                                    excerpt(body, settings.maxBodyBytes()));
                             try {
                                 ApiErrorResponse error = objectMapper.readValue(body, ApiErrorResponse.class);
                                 log.error("❌ Error {}: {}", error.code, error.message);
-                                return Mono.error(new RuntimeException(error.message));
+                                return Mono.error(new BackendResponseException(response.statusCode().value(),
+                                        error.message));
                             } catch (Exception e) {
-                                log.error("❌ Failed to parse error response body: {}", body, e);
-                                return Mono.error(new RuntimeException("Unexpected error occurred"));
+                                log.error("❌ Failed to parse error response body", e);
+                                return Mono.error(new BackendResponseException(response.statusCode().value(),
+                                        "Unexpected error occurred"));
                             }
                         });
+            });
+        };
+    }
+
+    /**
+     * Counts the body while it streams to the decoder instead of buffering it, and keeps a capped excerpt only when
+     * the call is sampled or already slow by the time the headers arrived.
+     */
+    private static ClientResponse logSuccess(ClientRequest request, ClientResponse response, long start,
+                                             BackendClientProperties.Logging settings) {
+        boolean slow = elapsedMillis(start) >= settings.slowThreshold().toMillis();
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < settings.sampleRate();
+        var body = new BodyStats(slow || sampled ? settings.maxBodyBytes() : 0);
+
+        return response.mutate()
+                .body(buffers -> buffers
+                        .doOnNext(body::record)
+                        .doFinally(signal -> logCompleted(request, response, start, body, settings)))
+                .build();
+    }
+
+    private static void logCompleted(ClientRequest request, ClientResponse response, long start, BodyStats body,
+                                     BackendClientProperties.Logging settings) {
+        long millis = elapsedMillis(start);
+        String line = "{} {} - HTTP {} in {} ms, {} bytes{}";
+        var excerpt = body.excerpt();
+        Object[] args = {request.method(), request.url().getPath(), response.statusCode().value(), millis, body.bytes,
+                excerpt.isEmpty() ? "" : ": " + excerpt};
+        if (millis >= settings.slowThreshold().toMillis()) {
+            log.warn("🐢 " + line, args);
+        } else {
+            log.info("✅ " + line, args);
+        }
+    }
+
+    /**
+     * At most {@code maxBytes} of {@code body}'s UTF-8 encoding, the same unit the success path counts in.
+     */
+    static String excerpt(String body, int maxBytes) {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        return excerpt(bytes, Math.min(bytes.length, maxBytes), bytes.length > maxBytes);
+    }
+
+    /**
+     * Decodes the first {@code length} bytes of a UTF-8 body. A character the cut splits is left out rather than
+     * shown as a replacement character.
+     */
+    static String excerpt(byte[] bytes, int length, boolean truncated) {
+        var decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        var in = ByteBuffer.wrap(bytes, 0, length);
+        var out = CharBuffer.allocate(length);
+        // not the end of input, so an incomplete sequence at the end stays undecoded
+        decoder.decode(in, out, false);
+        return out.flip() + (truncated ? "..." : "");
+    }
+
+    private static long elapsedMillis(long start) {
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+
+    private static final class BodyStats {
+
+        private final byte[] head;
+        private long bytes;
+        private int headBytes;
+
+        BodyStats(int excerptLimit) {
+            this.head = new byte[excerptLimit];
+        }
+
+        /**
+         * Copies raw bytes only; buffers can end in the middle of a character, so decoding waits for
+         * {@link #excerpt()}.
+         */
+        void record(DataBuffer buffer) {
+            int readable = buffer.readableByteCount();
+            bytes += readable;
+            int take = Math.min(readable, head.length - headBytes);
+            for (int i = 0; i < take; i++) {
+                head[headBytes++] = buffer.getByte(buffer.readPosition() + i);
             }
-        });
-    }
-
-    private static Mono<ClientResponse> logSuccess(ClientResponse response) {
-        return response.bodyToMono(String.class)
-                .defaultIfEmpty("No body")
-                .flatMap(body -> {
-                    log.info("✅ Success Response: HTTP {} - {}", response.statusCode(), body);
-                    return Mono.just(ClientResponse
-                            .create(response.statusCode())
-                            .headers(h -> h.addAll(response.headers().asHttpHeaders()))
-                            .body(body)
-                            .build());
-                });
+        }
+
+        String excerpt() {
+            return head.length == 0 ? "" : WebClientLoggingFilter.excerpt(head, headBytes, bytes > headBytes);
+        }
     }
 
     record ApiErrorResponse(String code, String message) {}
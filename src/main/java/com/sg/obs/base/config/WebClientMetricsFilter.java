@@ -0,0 +1,146 @@
+package com.sg.obs.base.config;
+
+import com.sg.obs.base.client.BackendEndpoint;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpRequestDecorator;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every backend call, each retry and hedge on its own, from the request until its response body has been read,
+ * so slow transfers and decoding count too. Calls are tagged with the logical {@code endpoint} and its
+ * {@code backend} (see {@link BackendEndpoint#ATTRIBUTE}), the HTTP {@code status}, the {@code outcome} and the
+ * {@code exception}. A call cancelled before it completes, such as a superseded grid load or a losing hedge, has the
+ * outcome {@code UNKNOWN}.
+ * <p>
+ * Request and response body sizes are recorded as distributions per endpoint. Histograms and SLO buckets are set with
+ * {@code management.metrics.distribution.*}.
+ */
+public class WebClientMetricsFilter {
+
+    public static final String REQUESTS = "backend.client.requests";
+    public static final String REQUEST_SIZE = "backend.client.request.size";
+    public static final String RESPONSE_SIZE = "backend.client.response.size";
+
+    private static final Set<HttpMethod> WITH_BODY = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH);
+
+    private WebClientMetricsFilter() {
+    }
+
+    public static ExchangeFilterFunction recordMetrics(MeterRegistry registry) {
+        var requests = Timer.builder(REQUESTS)
+                .description("Backend calls, from the request to the end of the response body")
+                .withRegistry(registry);
+        var requestSizes = DistributionSummary.builder(REQUEST_SIZE)
+                .description("Body size of backend requests")
+                .baseUnit(BaseUnits.BYTES)
+                .withRegistry(registry);
+        var responseSizes = DistributionSummary.builder(RESPONSE_SIZE)
+                .description("Body size of backend responses")
+                .baseUnit(BaseUnits.BYTES)
+                .withRegistry(registry);
+
+        return (request, next) -> {
+            var call = new Call(request, requests, requestSizes, responseSizes);
+            return next.exchange(call.hasBody ? call.countingBody(request) : request)
+                    .map(response -> {
+                        call.responded.set(true);
+                        var status = String.valueOf(response.statusCode().value());
+                        var outcome = Outcome.forStatus(response.statusCode().value());
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnNext(buffer -> call.responseBytes.add(buffer.readableByteCount()))
+                                        .doFinally(signal -> call.record(status,
+                                                signal == SignalType.CANCEL ? Outcome.UNKNOWN : outcome, "none", true)))
+                                .build();
+                    })
+                    .doOnError(error -> call.record("IO_ERROR", Outcome.UNKNOWN, error.getClass().getSimpleName(),
+                            false))
+                    .doOnCancel(() -> {
+                        if (!call.responded.get()) {
+                            call.record("CANCELLED", Outcome.UNKNOWN, "none", false);
+                        }
+                    });
+        };
+    }
+
+    private static final class Call {
+
+        private final long start = System.nanoTime();
+        private final String endpoint;
+        private final String backend;
+        private final boolean hasBody;
+        private final Meter.MeterProvider<Timer> requests;
+        private final Meter.MeterProvider<DistributionSummary> requestSizes;
+        private final Meter.MeterProvider<DistributionSummary> responseSizes;
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+        private final AtomicBoolean responded = new AtomicBoolean();
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        Call(ClientRequest request, Meter.MeterProvider<Timer> requests,
+             Meter.MeterProvider<DistributionSummary> requestSizes,
+             Meter.MeterProvider<DistributionSummary> responseSizes) {
+            var tagged = request.attribute(BackendEndpoint.ATTRIBUTE).map(BackendEndpoint.class::cast);
+            this.endpoint = tagged.map(BackendEndpoint::id).orElse("unknown");
+            this.backend = tagged.map(BackendEndpoint::backend).orElse("unknown");
+            this.hasBody = WITH_BODY.contains(request.method());
+            this.requests = requests;
+            this.requestSizes = requestSizes;
+            this.responseSizes = responseSizes;
+        }
+
+        /**
+         * Counts the request body as it is written. A single-buffer body stays a {@link Mono}, which lets Reactor Netty
+         * send it with a {@code Content-Length} instead of chunked.
+         */
+        ClientRequest countingBody(ClientRequest request) {
+            return ClientRequest.from(request)
+                    .body((message, context) -> request.body().insert(new ClientHttpRequestDecorator(message) {
+                        @Override
+                        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                            if (body instanceof Mono<? extends DataBuffer> single) {
+                                return super.writeWith(single.doOnNext(this::count));
+                            }
+                            return super.writeWith(Flux.from(body).doOnNext(this::count));
+                        }
+
+                        private void count(DataBuffer buffer) {
+                            requestBytes.add(buffer.readableByteCount());
+                        }
+                    }, context))
+                    .build();
+        }
+
+        void record(String status, Outcome outcome, String exception, boolean withResponse) {
+            if (!recorded.compareAndSet(false, true)) {
+                return;
+            }
+            requests.withTags("endpoint", endpoint, "backend", backend, "status", status,
+                            "outcome", outcome.name(), "exception", exception)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (hasBody) {
+                requestSizes.withTags("endpoint", endpoint, "backend", backend).record(requestBytes.sum());
+            }
+            if (withResponse) {
+                responseSizes.withTags("endpoint", endpoint, "backend", backend).record(responseBytes.sum());
+            }
+        }
+    }
+}
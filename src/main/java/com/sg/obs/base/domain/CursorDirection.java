@@ -0,0 +1,16 @@
+package com.sg.obs.base.domain;
+
+/**
+ * Which keyset page to fetch, relative to a cursor row in the result's order.
+ */
+public enum CursorDirection {
+
+    /** The first page, no cursor needed. */
+    FIRST,
+    /** The page ending right before the cursor row. */
+    PREVIOUS,
+    /** The page starting right after the cursor row. */
+    NEXT,
+    /** The last page, no cursor needed. */
+    LAST
+}
@@ -0,0 +1,16 @@
+package com.sg.obs.base.domain;
+
+import java.util.List;
+
+/**
+ * A page of a keyset-paginated result. Unlike an offset page it carries no totals, only whether more rows exist before
+ * and after it.
+ *
+ * @param stale set when the page is the last known value served because the backend could not answer
+ */
+public record CursorPage<T>(List<T> content, boolean hasPrevious, boolean hasNext, boolean stale) {
+
+    public CursorPage<T> asStale() {
+        return new CursorPage<>(content, hasPrevious, hasNext, true);
+    }
+}
@@ -0,0 +1,21 @@
+package com.sg.obs.base.ui.component;
+
+import java.util.Map;
+
+/**
+ * What a {@link PaginatedGrid} is filtered by when it fetches: the free-text filter set with
+ * {@link PaginatedGrid#setFilter(String)} and the values of its header filter row, keyed by filter key. Empty values
+ * are left out.
+ */
+public record GridFilter(String text, Map<String, String> columns) {
+
+    public static final GridFilter NONE = new GridFilter("", Map.of());
+
+    public GridFilter {
+        columns = Map.copyOf(columns);
+    }
+
+    public String column(String key) {
+        return columns.getOrDefault(key, "");
+    }
+}
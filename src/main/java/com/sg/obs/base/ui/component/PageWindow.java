@@ -0,0 +1,109 @@
+package com.sg.obs.base.ui.component;
+
+import com.sg.obs.base.client.StalePage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Backend pages around the rows a lazy grid is showing. Vaadin's offset/limit requests are mapped onto fixed-size
+ * backend pages, and pages more than {@code margin} pages away from the last request are evicted, so a grid holds at
+ * most a handful of pages however far it is scrolled.
+ * <p>
+ * Only used from data provider callbacks, which run under the session lock, so no synchronization is needed.
+ */
+class PageWindow<T> {
+
+    private final BiFunction<PageRequest, GridFilter, Mono<Page<T>>> fetchFunction;
+    private final int pageSize;
+    private final int margin;
+
+    private final Map<Integer, Page<T>> pages = new HashMap<>();
+    private Sort sort = Sort.unsorted();
+    private GridFilter filter = GridFilter.NONE;
+    private Integer total;
+
+    PageWindow(BiFunction<PageRequest, GridFilter, Mono<Page<T>>> fetchFunction, int pageSize, int margin) {
+        this.fetchFunction = fetchFunction;
+        this.pageSize = pageSize;
+        this.margin = margin;
+    }
+
+    int count(Sort sort, GridFilter filter) {
+        resetIfChanged(sort, filter);
+        if (total == null) {
+            load(0, 0);
+        }
+        return Objects.requireNonNullElse(total, 0);
+    }
+
+    List<T> fetch(int offset, int limit, Sort sort, GridFilter filter) {
+        resetIfChanged(sort, filter);
+        if (limit <= 0) {
+            return List.of();
+        }
+        int first = offset / pageSize;
+        int last = (offset + limit - 1) / pageSize;
+        load(first, last);
+        pages.keySet().removeIf(page -> page < first - margin || page > last + margin);
+
+        List<T> rows = new ArrayList<>(limit + pageSize);
+        for (int page = first; page <= last; page++) {
+            var result = pages.get(page);
+            if (result != null) {
+                rows.addAll(result.getContent());
+            }
+        }
+        int from = Math.min(offset - first * pageSize, rows.size());
+        return rows.subList(from, Math.min(from + limit, rows.size()));
+    }
+
+    boolean isStale() {
+        return pages.values().stream().anyMatch(StalePage.class::isInstance);
+    }
+
+    void reset() {
+        pages.clear();
+        total = null;
+    }
+
+    private void resetIfChanged(Sort sort, GridFilter filter) {
+        if (!this.sort.equals(sort) || !this.filter.equals(filter)) {
+            this.sort = sort;
+            this.filter = filter;
+            reset();
+        }
+    }
+
+    /**
+     * Fetches the missing pages of {@code [first, last]} concurrently. Blocking is unavoidable here since Vaadin's
+     * data provider callbacks are synchronous, and it happens with the session lock held: the session's other
+     * requests (clicks in another tab, pushes from background loads) wait for up to the slowest page, which the
+     * backend time limit caps. Scrolling within the pages kept around costs no fetch at all.
+     */
+    private void load(int first, int last) {
+        var missing = IntStream.rangeClosed(first, last).filter(page -> !pages.containsKey(page)).boxed().toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        var loaded = Flux.fromIterable(missing)
+                .flatMapSequential(page -> fetchFunction.apply(PageRequest.of(page, pageSize, sort), filter)
+                        .map(result -> Map.entry(page, result)))
+                .collectList()
+                .block();
+        for (var entry : Objects.requireNonNull(loaded)) {
+            pages.put(entry.getKey(), entry.getValue());
+            total = (int) Math.min(Integer.MAX_VALUE, entry.getValue().getTotalElements());
+        }
+    }
+}
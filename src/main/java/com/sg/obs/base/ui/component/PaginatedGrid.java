@@ -1,118 +1,554 @@
 package com.sg.obs.base.ui.component;
 
 
-import com.vaadin.flow.component.button.Button;
-import com.vaadin.flow.component.button.ButtonVariant;
+import com.sg.obs.base.client.StalePage;
+import com.sg.obs.base.client.StaleSlice;
+import com.sg.obs.base.domain.CursorDirection;
+import com.sg.obs.base.domain.CursorPage;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.Grid.Column;
 import com.vaadin.flow.component.grid.GridSortOrder;
-import com.vaadin.flow.component.icon.VaadinIcon;
-import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.grid.HeaderRow;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.provider.ListDataProvider;
 import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.data.renderer.Renderer;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.flow.shared.Registration;
 import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+/**
+ * A grid paged by the backend. Pages are fetched through a reactive fetch function and applied with
+ * {@link UI#access}, so no request thread waits on backend I/O; this requires server push.
+ * <p>
+ * Loading is latest-wins: a new load cancels the one in flight, loads requested within {@code loadDebounce} of each
+ * other collapse into the last one, and a response whose sequence number is no longer the latest is dropped.
+ * <p>
+ * With {@link #setInfiniteScroll(boolean)} the pagination bar is replaced by a lazy data provider that scrolls through
+ * the whole result set, keeping only the backend pages around the visible rows (see {@link PageWindow}). With
+ * {@link #setCursorPaging(CursorFetch)} pages are fetched by keyset relative to the rows shown instead of by offset,
+ * and with {@link #setCountFreePaging} without a total.
+ * <p>
+ * Reloads are applied as a diff against the rows shown, keyed by {@link #setRowId(ValueProvider)}: when a reload
+ * brings back the same rows, only those whose values changed are re-rendered and sent to the browser.
+ */
+@Slf4j
 public class PaginatedGrid<T> extends VerticalLayout {
 
     @Getter
     private final Grid<T> grid;
     @Getter
     private final ListDataProvider<T> dataProvider;
+    private final List<T> rows = new ArrayList<>();
+    private ValueProvider<T, ?> rowId = item -> item;
+
+    private final List<SerializableConsumer<List<T>>> rowsLoadedListeners = new ArrayList<>();
+
+    private final List<ValueProvider<T, String>> displayFormats = new ArrayList<>();
+    private final Map<T, String[]> displayRows = new IdentityHashMap<>();
     private final Pagination pagination;
+    private final Span staleNotice = new Span("Backend unavailable - showing the last loaded data");
+    private final ProgressBar loadingIndicator = new ProgressBar();
+
+
+    private final transient BiFunction<PageRequest, GridFilter, Mono<Page<T>>> fetchFunction;
+
+    private transient Disposable inFlight;
+    private long requestSequence;
+
+    @Setter
+    private Duration loadDebounce = Duration.ofMillis(150);
+
+    /**
+     * Backend time of the last applied load, from its fetch (after the debounce) to its result being shown.
+     */
+    @Getter
+    private Duration lastLoadDuration = Duration.ZERO;
+
+    /**
+     * Backend page size used in infinite-scroll mode.
+     */
+    @Setter
+    private int windowPageSize = 100;
 
+    private transient PageWindow<T> window;
 
-    private final transient BiFunction<PageRequest, String, Page<T>> fetchFunction;
+    private transient CursorFetch<T> cursorFetch;
+    private transient CursorPage<T> cursorPage;
 
+    private transient BiFunction<PageRequest, GridFilter, Mono<Slice<T>>> sliceFetch;
+    private transient Function<GridFilter, Mono<Long>> approximateTotal;
+    private transient Disposable totalInFlight;
+    private @Nullable GridFilter totalFilter;
 
     private String currentFilter = "";
+    private final Map<String, String> columnFilters = new HashMap<>();
+    private @Nullable HeaderRow filterRow;
 
     public PaginatedGrid(Class<T> beanType,
-                         BiFunction<PageRequest, String, Page<T>> fetchFunction) {
+                         BiFunction<PageRequest, GridFilter, Mono<Page<T>>> fetchFunction) {
         this.fetchFunction = fetchFunction;
         this.grid = new Grid<>(beanType, false);
-        this.dataProvider = new ListDataProvider<>(new ArrayList<>());
+        this.dataProvider = new ListDataProvider<>(rows) {
+            @Override
+            public Object getId(T item) {
+                return rowId.apply(item);
+            }
+        };
         this.grid.setDataProvider(dataProvider);
 
         this.pagination = new Pagination(this::loadPage);
 
+        staleNotice.getElement().getThemeList().add("badge contrast");
+        staleNotice.setVisible(false);
+        loadingIndicator.setIndeterminate(true);
+        loadingIndicator.setVisible(false);
+
         setSizeFull();
-        add(grid, pagination);
+        add(staleNotice, loadingIndicator, grid, pagination);
+        // Lazy mode re-queries the data provider on sort by itself
+        grid.addSortListener(e -> {
+            if (window == null) {
+                loadPage(0);
+            }
+        });
+        addDetachListener(e -> {
+            cancelInFlight();
+            if (totalInFlight != null) {
+                totalInFlight.dispose();
+            }
+        });
+    }
+
+    /**
+     * Identifies rows across reloads, typically by their backend ID. Without one rows are identified by
+     * {@code equals}, so a row whose values changed is treated as removed and re-added.
+     */
+    public void setRowId(ValueProvider<T, ?> rowId) {
+        this.rowId = rowId;
     }
 
     public void setFilter(String filter) {
-        this.currentFilter = Optional.of(filter).orElse("");
+        var newFilter = Optional.ofNullable(filter).orElse("");
+        if (newFilter.equals(currentFilter)) {
+            return;
+        }
+        this.currentFilter = newFilter;
+        loadPage(0, pagination.getCurrentPageSize());
+    }
+
+    /**
+     * Filters the grid by the value of {@code filterField}, sent only after the user pauses typing.
+     */
+    public void bindFilter(TextField filterField) {
+        filterField.setValueChangeMode(ValueChangeMode.LAZY);
+        filterField.setValueChangeTimeout(300);
+        filterField.addValueChangeListener(e -> setFilter(e.getValue()));
+    }
+
+    /**
+     * Adds a filter field for {@code column} to a header row below the column headers. Its value reaches the fetch
+     * functions as {@link GridFilter#column(String) filter.column(key)} once the user pauses typing; interpreting it
+     * (and filtering) is up to the backend.
+     */
+    public TextField addColumnFilter(Column<T> column, String key, String placeholder) {
+        if (filterRow == null) {
+            filterRow = grid.appendHeaderRow();
+        }
+        var field = new TextField();
+        field.setPlaceholder(placeholder);
+        field.setClearButtonVisible(true);
+        field.setWidthFull();
+        field.setValueChangeMode(ValueChangeMode.LAZY);
+        field.setValueChangeTimeout(300);
+        field.addValueChangeListener(e -> setColumnFilter(key, e.getValue()));
+        filterRow.getCell(column).setComponent(field);
+        return field;
+    }
+
+    private void setColumnFilter(String key, String value) {
+        var newValue = Optional.ofNullable(value).orElse("").trim();
+        if (newValue.equals(columnFilters.getOrDefault(key, ""))) {
+            return;
+        }
+        if (newValue.isEmpty()) {
+            columnFilters.remove(key);
+        } else {
+            columnFilters.put(key, newValue);
+        }
         loadPage(0, pagination.getCurrentPageSize());
     }
 
+    private GridFilter currentGridFilter() {
+        return new GridFilter(currentFilter, columnFilters);
+    }
+
+    /**
+     * Called with the rows shown after each load, so data for the whole page can be fetched in one go instead of row
+     * by row. Not called in infinite-scroll mode, where rows are fetched on demand.
+     */
+    public Registration addRowsLoadedListener(SerializableConsumer<List<T>> listener) {
+        rowsLoadedListeners.add(listener);
+        return () -> rowsLoadedListeners.remove(listener);
+    }
+
+    /**
+     * Switches between the paged mode and infinite scrolling over the whole result set.
+     */
+    public void setInfiniteScroll(boolean enabled) {
+        cancelInFlight();
+        setLoading(false);
+        pagination.setVisible(!enabled);
+        if (enabled) {
+            window = new PageWindow<>(fetchFunction, windowPageSize, 2);
+            grid.setItems(
+                            query -> fetchWindow(query.getOffset(), query.getLimit()).stream(),
+                            query -> window.count(currentSort(), currentGridFilter()))
+                    .setIdentifierProvider(rowId::apply);
+        } else {
+            window = null;
+            grid.setDataProvider(dataProvider);
+            loadPage(0);
+        }
+    }
+
+    private List<T> fetchWindow(int offset, int limit) {
+        if (displayRows.size() > 4 * windowPageSize) {
+            displayRows.clear();
+        }
+        var rows = window.fetch(offset, limit, currentSort(), currentGridFilter());
+        staleNotice.setVisible(window.isStale());
+        return rows;
+    }
+
+    /**
+     * Pages by keyset instead of offset. Prev/next continue from the first/last row shown, so deep pages cost the
+     * backend no more than the first one; the pagination bar offers newest/oldest jumps instead of a page count.
+     * Keyset pages follow the cursor's order, so the columns added so far stop being sortable.
+     */
+    public void setCursorPaging(CursorFetch<T> cursorFetch) {
+        this.cursorFetch = cursorFetch;
+        grid.getColumns().forEach(column -> column.setSortable(false));
+        pagination.useCursors(this::loadCursor);
+    }
+
+    /**
+     * Pages without a total, so the backend can skip its count query. Next is enabled as long as the last slice said
+     * there is more; the page count shown is approximate and loaded separately, once per filter.
+     */
+    public void setCountFreePaging(BiFunction<PageRequest, GridFilter, Mono<Slice<T>>> sliceFetch,
+                                   Function<GridFilter, Mono<Long>> approximateTotal) {
+        this.sliceFetch = sliceFetch;
+        this.approximateTotal = approximateTotal;
+        pagination.useSlices();
+    }
+
     public void loadPage(int pageIndex, int pageSize) {
-        var sort = grid.getSortOrder().isEmpty() ?
-                Sort.unsorted() :
-                Sort.by(grid.getSortOrder().stream().map(this::getSortBy).toList());
+        if (window != null) {
+            window.reset();
+            grid.getDataProvider().refreshAll();
+            return;
+        }
+        if (cursorFetch != null) {
+            loadCursor(CursorDirection.FIRST);
+            return;
+        }
+        var pageable = PageRequest.of(pageIndex, pageSize, currentSort());
+        var filter = currentGridFilter();
+        if (sliceFetch != null) {
+            load(() -> sliceFetch.apply(pageable, filter), results -> applySlice(pageIndex, results));
+            loadApproximateTotal(filter);
+            return;
+        }
+        load(() -> fetchFunction.apply(pageable, filter), results -> applyPage(pageIndex, results));
+    }
 
-        var pageable = PageRequest.of(pageIndex, pageSize, sort);
+    private void loadApproximateTotal(GridFilter filter) {
+        if (filter.equals(totalFilter)) {
+            return;
+        }
+        totalFilter = filter;
+        if (totalInFlight != null) {
+            totalInFlight.dispose();
+        }
+        pagination.setApproximateTotal(null);
+        var ui = getUI().orElseGet(UI::getCurrent);
+        totalInFlight = approximateTotal.apply(filter)
+                .subscribe(total -> ui.access(() -> {
+                            if (filter.equals(totalFilter)) {
+                                pagination.setApproximateTotal(total);
+                            }
+                        }),
+                        error -> log.debug("Approximate total for {} unavailable", filter, error));
+    }
 
-        Page<T> results = fetchFunction.apply(pageable, currentFilter);
+    private void loadCursor(CursorDirection direction) {
+        var rows = cursorPage == null ? List.<T>of() : cursorPage.content();
+        T cursor = null;
+        if (direction == CursorDirection.PREVIOUS && !rows.isEmpty()) {
+            cursor = rows.getFirst();
+        } else if (direction == CursorDirection.NEXT && !rows.isEmpty()) {
+            cursor = rows.getLast();
+        }
+        var anchor = cursor;
+        var effectiveDirection = anchor == null && direction != CursorDirection.LAST ? CursorDirection.FIRST : direction;
+        var size = pagination.getCurrentPageSize();
+        var filter = currentGridFilter();
+        load(() -> cursorFetch.fetch(anchor, effectiveDirection, size, filter), this::applyCursorPage);
+    }
 
-        Collection<T> modifiableItems = results.getContent();
-        dataProvider.getItems().clear();
-        dataProvider.getItems().addAll(modifiableItems);
-        dataProvider.refreshAll();
+    /**
+     * Runs a fetch latest-wins: it cancels the load in flight, waits out {@code loadDebounce} (except for the very
+     * first load) and applies the result only if no newer load has started since.
+     */
+    private <R> void load(Supplier<Mono<R>> fetch, Consumer<R> apply) {
+        var ui = getUI().orElseGet(UI::getCurrent);
+        var delay = requestSequence == 0 ? Duration.ZERO : loadDebounce;
+        long sequence = ++requestSequence;
 
+        cancelInFlight();
+        setLoading(true);
+        inFlight = Mono.delay(delay)
+                .then(Mono.defer(() -> {
+                    long started = System.nanoTime();
+                    return fetch.get().map(result -> Map.entry(started, result));
+                }))
+                .subscribe(loaded -> ui.access(() -> {
+                            if (sequence != requestSequence) {
+                                log.debug("Dropping result of superseded load #{}", sequence);
+                                return;
+                            }
+                            lastLoadDuration = Duration.ofNanos(System.nanoTime() - loaded.getKey());
+                            apply.accept(loaded.getValue());
+                        }),
+                        error -> ui.access(() -> loadFailed(sequence, error)));
+    }
+
+    private void applyCursorPage(CursorPage<T> page) {
+        cursorPage = page;
+        showRows(page.content(), page.stale());
+        pagination.setCursorState(page.hasPrevious(), page.hasNext());
+    }
+
+    private void applySlice(int pageIndex, Slice<T> results) {
+        showRows(results.getContent(), results instanceof StaleSlice);
+        pagination.setCurrentPage(pageIndex);
+        pagination.setHasNext(results.hasNext());
+    }
+
+    private void applyPage(int pageIndex, Page<T> results) {
+        showRows(results.getContent(), results instanceof StalePage);
         pagination.setTotalPages(results.getTotalPages());
         pagination.setCurrentPage(pageIndex);
     }
 
-    private Sort.Order getSortBy(GridSortOrder<T> order) {
-        return order.getDirection() == SortDirection.ASCENDING ?
-                Sort.Order.asc(order.getSorted().getKey()) :
-                Sort.Order.desc(order.getSorted().getKey());
+    private void showRows(List<T> newRows, boolean stale) {
+        replaceRows(newRows);
+        staleNotice.setVisible(stale);
+        setLoading(false);
+        var shown = List.copyOf(rows);
+        rowsLoadedListeners.forEach(listener -> listener.accept(shown));
+    }
+
+    /**
+     * Shows {@code newRows}, refreshing only the rows that changed when the same rows come back in the same order (a
+     * reload after an edit, a stale-while-revalidate refresh). Anything else needs a full refresh, since the grid
+     * has no way to insert or remove single rows; the stable row IDs still let it keep the keys of rows it knows.
+     */
+    private void replaceRows(List<T> newRows) {
+        if (!sameRows(newRows)) {
+            rows.clear();
+            rows.addAll(newRows);
+            displayRows.clear();
+            dataProvider.refreshAll();
+            log.debug("Refreshed all {} rows", newRows.size());
+            return;
+        }
+        int changed = 0;
+        for (int i = 0; i < newRows.size(); i++) {
+            var row = newRows.get(i);
+            if (!row.equals(rows.get(i))) {
+                displayRows.remove(rows.get(i));
+                rows.set(i, row);
+                dataProvider.refreshItem(row);
+                changed++;
+            }
+        }
+        log.debug("Refreshed {} of {} rows", changed, newRows.size());
+    }
+
+    private boolean sameRows(List<T> newRows) {
+        if (newRows.size() != rows.size()) {
+            return false;
+        }
+        for (int i = 0; i < newRows.size(); i++) {
+            if (!Objects.equals(rowId.apply(newRows.get(i)), rowId.apply(rows.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void loadFailed(long sequence, Throwable error) {
+        if (sequence != requestSequence) {
+            return;
+        }
+        log.error("Failed to load grid page", error);
+        setLoading(false);
+        pagination.loadFailed();
+        Notification.show("Failed to load data: " + error.getMessage(), 3000, Notification.Position.TOP_CENTER)
+                .addThemeVariants(NotificationVariant.LUMO_ERROR);
+    }
+
+    private void setLoading(boolean loading) {
+        loadingIndicator.setVisible(loading);
+    }
+
+    private void cancelInFlight() {
+        if (inFlight != null) {
+            inFlight.dispose();
+        }
+    }
+
+    /**
+     * The grid's sort order in backend fields, as mapped by {@link #addColumn(ValueProvider, String, String)}.
+     */
+    private Sort currentSort() {
+        return grid.getSortOrder().isEmpty() ?
+                Sort.unsorted() :
+                Sort.by(grid.getSortOrder().stream().flatMap(this::getSortBy).toList());
+    }
+
+    private Stream<Sort.Order> getSortBy(GridSortOrder<T> order) {
+        return order.getSorted().getSortOrder(order.getDirection())
+                .map(sortOrder -> sortOrder.getDirection() == SortDirection.ASCENDING ?
+                        Sort.Order.asc(sortOrder.getSorted()) :
+                        Sort.Order.desc(sortOrder.getSorted()));
     }
 
     public void loadPage(int pageIndex) {
         loadPage(pageIndex, pagination.getCurrentPageSize());
     }
 
+    /**
+     * Adds edit/delete buttons rendered from a template on the client: a row costs two properties instead of a
+     * server-side layout with two buttons and their listeners, and clicks reach one handler per action.
+     */
     public void addActionColumn(Consumer<T> editHandler, Consumer<T> deleteHandler) {
-        grid.addComponentColumn(item -> {
-            Button edit = new Button("Edit", VaadinIcon.EDIT.create());
-            Button delete = new Button("Delete", VaadinIcon.TRASH.create());
-
-            edit.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
-            delete.addThemeVariants(ButtonVariant.LUMO_ERROR, ButtonVariant.LUMO_TERTIARY);
-
-            edit.addClickListener(e -> editHandler.accept(item));
-            delete.addClickListener(e -> deleteHandler.accept(item));
+        grid.addColumn(LitRenderer.<T>of("""
+                        <vaadin-horizontal-layout theme="spacing">
+                          <vaadin-button theme="tertiary" @click="${edit}">
+                            <vaadin-icon icon="vaadin:edit" slot="prefix"></vaadin-icon>Edit
+                          </vaadin-button>
+                          <vaadin-button theme="error tertiary" @click="${remove}">
+                            <vaadin-icon icon="vaadin:trash" slot="prefix"></vaadin-icon>Delete
+                          </vaadin-button>
+                        </vaadin-horizontal-layout>""")
+                .withFunction("edit", editHandler::accept)
+                .withFunction("remove", deleteHandler::accept)
+        ).setHeader("Actions").setAutoWidth(true).setKey(getColKey());
+    }
 
-            return new HorizontalLayout(edit, delete);
-        }).setHeader("Actions").setAutoWidth(true);
+    /**
+     * Adds a column sorted by the backend on {@code sortProperty}. Columns added without one are not sortable, since
+     * sorting only the rows of the current page would be misleading.
+     */
+    public <V> Column<T> addColumn(ValueProvider<T, V> valueProvider, String header, String sortProperty) {
+        return sortedByBackend(addColumn(valueProvider, header), sortProperty);
     }
 
     public <V> Column<T> addColumn(ValueProvider<T, V> valueProvider, String header) {
-        return grid.addColumn(valueProvider).setHeader(header).setAutoWidth(true).setSortable(true).setKey(getColKey());
+        return grid.addColumn(valueProvider).setHeader(header).setAutoWidth(true).setSortable(false).setKey(getColKey());
     }
 
     public <V> Column<T> addColumn(ValueProvider<T, V> valueProvider) {
-        return grid.addColumn(valueProvider).setSortable(true).setKey(getColKey());
+        return grid.addColumn(valueProvider).setSortable(false).setKey(getColKey());
     }
 
     public Column<T> addColumn(Renderer<T> renderer) {
-        return grid.addColumn(renderer).setSortable(true).setKey(getColKey());
+        return grid.addColumn(renderer).setSortable(false).setKey(getColKey());
+    }
+
+    /**
+     * Adds a column showing {@code format}'s text for a row, sorted by the backend on {@code sortProperty}.
+     */
+    public Column<T> addDisplayColumn(ValueProvider<T, String> format, String header, String sortProperty) {
+        return sortedByBackend(addDisplayColumn(format, header), sortProperty);
+    }
+
+    /**
+     * Adds a column showing {@code format}'s text for a row. The text is computed once per fetched row and reused
+     * whenever the row is rendered again (scrolling, sorting other columns, refreshes of other rows). Only the rows
+     * shown are kept: a reload drops the cells of the rows it replaces, and infinite scroll keeps at most four window
+     * pages' worth.
+     */
+    public Column<T> addDisplayColumn(ValueProvider<T, String> format, String header) {
+        int index = displayFormats.size();
+        displayFormats.add(format);
+        displayRows.clear();
+        return addColumn(row -> display(row)[index], header);
+    }
+
+    private String[] display(T row) {
+        return displayRows.computeIfAbsent(row, it -> {
+            var cells = new String[displayFormats.size()];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = displayFormats.get(i).apply(it);
+            }
+            return cells;
+        });
+    }
+
+    /**
+     * Rows arrive sorted by the backend. A comparator that never reorders keeps the list data provider from sorting
+     * them again in memory by the column's value, which can disagree with the backend's order.
+     */
+    private Column<T> sortedByBackend(Column<T> column, String sortProperty) {
+        return column.setSortProperty(sortProperty).setComparator((a, b) -> 0);
     }
 
     private String getColKey() {
         return "col_" + grid.getColumns().size();
     }
-}
 
+    /**
+     * Fetches a keyset page of {@code size} rows in {@code direction} from {@code cursor}, which is {@code null} for
+     * {@link CursorDirection#FIRST} and {@link CursorDirection#LAST}.
+     */
+    @FunctionalInterface
+    public interface CursorFetch<T> {
+        Mono<CursorPage<T>> fetch(@Nullable T cursor, CursorDirection direction, int size, GridFilter filter);
+    }
+}
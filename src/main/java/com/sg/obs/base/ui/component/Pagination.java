@@ -1,22 +1,33 @@
 package com.sg.obs.base.ui.component;
 
+import com.sg.obs.base.domain.CursorDirection;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import org.jspecify.annotations.Nullable;
 
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class Pagination extends HorizontalLayout {
 
     private final transient BiConsumer<Integer, Integer> pageLoader;
+    private transient Consumer<CursorDirection> cursorLoader;
+    private boolean countFree;
+    private @Nullable Long approximateTotal;
     private int currentPage = 0;
+    private int shownPage = 0;
+    private boolean hadPrevious;
+    private boolean hadNext;
     private int totalPages = 1;
     private int pageSize = 5;
 
     private final Button prev = new Button("Prev");
     private final Button next = new Button("Next");
+    private final Button newest = new Button("Newest");
+    private final Button oldest = new Button("Oldest");
     private final Span pageInfo = new Span();
 
     public Pagination(BiConsumer<Integer, Integer> pageLoader) {
@@ -33,17 +44,26 @@ public class Pagination extends HorizontalLayout {
         pageSizeSelector.setPlaceholder("Page Size");  // Use placeholder instead of label
         pageSizeSelector.addValueChangeListener(e -> {
             pageSize = e.getValue();
-            pageLoader.accept(currentPage, pageSize);
+            if (cursorLoader != null) {
+                cursorLoader.accept(CursorDirection.FIRST);
+            } else {
+                pageLoader.accept(currentPage, pageSize);
+            }
         });
 
         // Alternative approach: Create a label span and the combobox separately
         Span pageSizeLabel = new Span("Page Size:");
         pageSizeLabel.getStyle().set("margin-right", "5px");
 
-        prev.addClickListener(e -> goToPage(currentPage - 1));
-        next.addClickListener(e -> goToPage(currentPage + 1));
+        prev.addClickListener(e -> move(CursorDirection.PREVIOUS, currentPage - 1));
+        next.addClickListener(e -> move(CursorDirection.NEXT, currentPage + 1));
+        newest.addClickListener(e -> cursorLoader.accept(CursorDirection.FIRST));
+        oldest.addClickListener(e -> cursorLoader.accept(CursorDirection.LAST));
+        newest.setVisible(false);
+        oldest.setVisible(false);
 
-        HorizontalLayout controls = new HorizontalLayout(pageSizeLabel, pageSizeSelector, prev, pageInfo, next);
+        HorizontalLayout controls = new HorizontalLayout(pageSizeLabel, pageSizeSelector, newest, prev, pageInfo, next,
+                oldest);
 
         controls.setAlignItems(Alignment.CENTER);
         controls.setJustifyContentMode(JustifyContentMode.CENTER);
@@ -53,8 +73,12 @@ public class Pagination extends HorizontalLayout {
         updateControls();
     }
 
+    /**
+     * The page whose rows are now shown.
+     */
     public void setCurrentPage(int page) {
         this.currentPage = page;
+        this.shownPage = page;
         updateControls();
     }
 
@@ -63,18 +87,97 @@ public class Pagination extends HorizontalLayout {
         updateControls();
     }
 
+    /**
+     * Switches to cursor paging: prev/next move relative to the rows shown and the page count gives way to
+     * newest/oldest jumps, since keyset paging has no page numbers. A click disables the buttons in the browser until
+     * its page is shown: every click before then would move from the same rows and ask for the same page again.
+     */
+    public void useCursors(Consumer<CursorDirection> cursorLoader) {
+        this.cursorLoader = cursorLoader;
+        pageInfo.setVisible(false);
+        newest.setVisible(true);
+        oldest.setVisible(true);
+        for (var button : List.of(newest, prev, next, oldest)) {
+            button.setDisableOnClick(true);
+        }
+    }
+
+    /**
+     * Switches to count-free paging: the number of pages is unknown, so next stays enabled while the last slice reported
+     * more rows, and the page count shown is an approximation once one is available.
+     */
+    public void useSlices() {
+        this.countFree = true;
+        updateControls();
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.totalPages = hasNext ? currentPage + 2 : currentPage + 1;
+        updateControls();
+    }
+
+    public void setApproximateTotal(@Nullable Long totalElements) {
+        this.approximateTotal = totalElements;
+        updateControls();
+    }
+
+    public void setCursorState(boolean hasPrevious, boolean hasNext) {
+        this.hadPrevious = hasPrevious;
+        this.hadNext = hasNext;
+        newest.setEnabled(hasPrevious);
+        prev.setEnabled(hasPrevious);
+        next.setEnabled(hasNext);
+        oldest.setEnabled(hasNext);
+    }
+
+    /**
+     * The latest load failed, so the rows shown are still those of the last page loaded: the pager goes back to it.
+     * Newest stays available to retry from the top.
+     */
+    public void loadFailed() {
+        if (cursorLoader != null) {
+            setCursorState(hadPrevious, hadNext);
+            newest.setEnabled(true);
+        } else {
+            currentPage = shownPage;
+            updateControls();
+        }
+    }
+
     public int getCurrentPageSize() {
         return pageSize;
     }
 
+    private void move(CursorDirection direction, int page) {
+        if (cursorLoader != null) {
+            cursorLoader.accept(direction);
+        } else {
+            goToPage(page);
+        }
+    }
+
+    /**
+     * Moves to the page right away, so repeated clicks keep counting from it while its load is still pending; the grid
+     * debounces them into one request. Until the page is shown, {@link #loadFailed()} returns to the page still shown.
+     */
     private void goToPage(int page) {
         if (page >= 0 && page < totalPages) {
+            currentPage = page;
+            updateControls();
             pageLoader.accept(page, pageSize);
         }
     }
 
     private void updateControls() {
-        pageInfo.setText("Page " + (currentPage + 1) + " of " + totalPages);
+        if (cursorLoader != null) {
+            return;
+        }
+        if (countFree) {
+            pageInfo.setText("Page " + (currentPage + 1) + (approximateTotal == null ? ""
+                    : " of ~" + Math.max(1, (approximateTotal + pageSize - 1) / pageSize)));
+        } else {
+            pageInfo.setText("Page " + (currentPage + 1) + " of " + totalPages);
+        }
         prev.setEnabled(currentPage > 0);
         next.setEnabled(currentPage < totalPages - 1);
     }
@@ -0,0 +1,114 @@
+package com.sg.obs.base.ui.component;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Loads the independent sections of a view concurrently and renders each one as soon as its own data arrives, so the
+ * view waits for its slowest section rather than for the sum of all of them. Requires server push.
+ * <p>
+ * Every section's load time, from the start of its fetch to its render, is logged and recorded as the
+ * {@code view.section.load} timer tagged with {@code view} and {@code section}.
+ */
+@Slf4j
+public class ViewLoader {
+
+    private final String view;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Section<?>> sections = new LinkedHashMap<>();
+    private final Map<String, Disposable> inFlight = new HashMap<>();
+
+    public ViewLoader(String view, MeterRegistry meterRegistry) {
+        this.view = view;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Declares a section. An empty {@code fetch} renders nothing; a failed one is reported in a notification.
+     */
+    public <R> ViewLoader section(String name, Supplier<Mono<R>> fetch, Consumer<R> render) {
+        return section(name, fetch, render, error -> Notification.show(error.getMessage(), 3000,
+                        Notification.Position.TOP_CENTER)
+                .addThemeVariants(NotificationVariant.LUMO_ERROR));
+    }
+
+    public <R> ViewLoader section(String name, Supplier<Mono<R>> fetch, Consumer<R> render,
+                                  Consumer<Throwable> failed) {
+        sections.put(name, new Section<>(fetch, render, failed));
+        return this;
+    }
+
+    /**
+     * Starts all declared sections at once.
+     */
+    public void load() {
+        load(sections.keySet().toArray(String[]::new));
+    }
+
+    /**
+     * Starts the given sections at once, cancelling loads of the same sections still in flight.
+     */
+    public void load(String... names) {
+        var ui = UI.getCurrent();
+        for (var name : names) {
+            var section = sections.get(name);
+            if (section == null) {
+                throw new IllegalArgumentException("Unknown section " + name + " of " + view);
+            }
+            var previous = inFlight.put(name, start(name, section, ui));
+            if (previous != null) {
+                previous.dispose();
+            }
+        }
+    }
+
+    /**
+     * Records the load time of a section loaded by its own component, such as a {@link PaginatedGrid}.
+     */
+    public void record(String section, Duration elapsed) {
+        log.debug("{} section {} loaded in {} ms", view, section, elapsed.toMillis());
+        Timer.builder("view.section.load")
+                .description("Time from the start of a view section's fetch to its render")
+                .tag("view", view)
+                .tag("section", section)
+                .register(meterRegistry)
+                .record(elapsed);
+    }
+
+    public void cancel() {
+        inFlight.values().forEach(Disposable::dispose);
+        inFlight.clear();
+    }
+
+    private <R> Disposable start(String name, Section<R> section, UI ui) {
+        return Mono.defer(() -> {
+                    long started = System.nanoTime();
+                    return section.fetch().get()
+                            .map(result -> Map.entry(started, result));
+                })
+                .subscribe(loaded -> ui.access(() -> {
+                            section.render().accept(loaded.getValue());
+                            record(name, Duration.ofNanos(System.nanoTime() - loaded.getKey()));
+                        }),
+                        error -> ui.access(() -> {
+                            log.warn("Failed to load {} section {}", view, name, error);
+                            section.failed().accept(error);
+                        }));
+    }
+
+    private record Section<R>(Supplier<Mono<R>> fetch, Consumer<R> render, Consumer<Throwable> failed) {
+    }
+}
@@ -0,0 +1,268 @@
+package com.sg.obs.base.ui.view;
+
+import com.sg.obs.base.config.UiMetricsProperties;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.router.AfterNavigationEvent;
+import com.vaadin.flow.router.RouteConfiguration;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinRequestInterceptor;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.WrappedSession;
+import com.vaadin.flow.shared.ApplicationConstants;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Server-side Vaadin metrics, tagged with the {@code route} a UI shows ({@code items}, {@code inventories},
+ * {@code orders}; {@code none} before its first navigation):
+ * <ul>
+ *     <li>{@code vaadin.uidl.request}: handling time of each UIDL request, with its {@code outcome}</li>
+ *     <li>{@code vaadin.navigation}: from the start of the request that navigates until the view is shown</li>
+ *     <li>{@code vaadin.ui.active} per route and {@code vaadin.session.active}</li>
+ *     <li>{@code vaadin.session.size}: serialized size of a session, sampled per {@link UiMetricsProperties}</li>
+ * </ul>
+ */
+@Configuration
+class UiMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(UiMetrics.class);
+
+    private static final String REQUEST_START = UiMetrics.class.getName() + ".requestStart";
+    private static final String REQUEST_FAILURE = UiMetrics.class.getName() + ".requestFailure";
+    private static final String UI_ROUTES = UiMetrics.class.getName() + ".uiRoutes";
+    private static final String SIZE_MEASURED = UiMetrics.class.getName() + ".sizeMeasured";
+    private static final String NO_ROUTE = "none";
+
+    @Bean
+    public VaadinServiceInitListener uiMetricsInitializer(MeterRegistry meterRegistry,
+                                                          UiMetricsProperties properties) {
+        return event -> {
+            var recorder = new Recorder(meterRegistry, properties);
+            // UI listeners look the recorder up rather than capture it, so sessions stay serializable
+            event.getSource().getContext().setAttribute(Recorder.class, recorder);
+            event.addVaadinRequestInterceptor(recorder);
+            event.getSource().addSessionInitListener(e -> recorder.sessions.incrementAndGet());
+            event.getSource().addSessionDestroyListener(e -> recorder.sessions.decrementAndGet());
+            event.getSource().addUIInitListener(e -> track(e.getUI()));
+        };
+    }
+
+    /**
+     * Runs with the session locked. The UI's route is kept in the HTTP session, where request interceptors can read it
+     * without that lock.
+     */
+    private static void track(UI ui) {
+        var wrappedSession = ui.getSession().getSession();
+        var routes = uiRoutes(wrappedSession);
+        if (routes == null) {
+            routes = new ConcurrentHashMap<>();
+            wrappedSession.setAttribute(UI_ROUTES, routes);
+        }
+        var uiRoutes = routes;
+        int uiId = ui.getUIId();
+        ui.addAfterNavigationListener(e -> withRecorder(recorder -> recorder.navigated(uiRoutes, uiId, e)));
+        ui.addDetachListener(e -> withRecorder(recorder -> recorder.closed(uiRoutes, uiId)));
+    }
+
+    private static void withRecorder(Consumer<Recorder> action) {
+        var service = VaadinService.getCurrent();
+        var recorder = service == null ? null : service.getContext().getAttribute(Recorder.class);
+        if (recorder != null) {
+            action.accept(recorder);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static @Nullable ConcurrentHashMap<Integer, String> uiRoutes(@Nullable WrappedSession wrappedSession) {
+        return wrappedSession == null ? null
+                : (ConcurrentHashMap<Integer, String>) wrappedSession.getAttribute(UI_ROUTES);
+    }
+
+    private static final class Recorder implements VaadinRequestInterceptor {
+
+        private final MeterRegistry registry;
+        private final UiMetricsProperties properties;
+        private final AtomicInteger sessions = new AtomicInteger();
+        private final Map<String, AtomicInteger> uis = new ConcurrentHashMap<>();
+
+        Recorder(MeterRegistry registry, UiMetricsProperties properties) {
+            this.registry = registry;
+            this.properties = properties;
+            Gauge.builder("vaadin.session.active", sessions, AtomicInteger::get)
+                    .description("Open Vaadin sessions")
+                    .register(registry);
+        }
+
+        @Override
+        public void requestStart(VaadinRequest request, VaadinResponse response) {
+            request.setAttribute(REQUEST_START, System.nanoTime());
+        }
+
+        @Override
+        public void handleException(VaadinRequest request, VaadinResponse response, @Nullable VaadinSession session,
+                                    Exception exception) {
+            request.setAttribute(REQUEST_FAILURE, exception.getClass().getSimpleName());
+        }
+
+        @Override
+        public void requestEnd(VaadinRequest request, VaadinResponse response, @Nullable VaadinSession session) {
+            if (!ApplicationConstants.REQUEST_TYPE_UIDL.equals(
+                    request.getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                    || !(request.getAttribute(REQUEST_START) instanceof Long started)) {
+                return;
+            }
+            var route = route(request);
+            var failure = request.getAttribute(REQUEST_FAILURE);
+            Timer.builder("vaadin.uidl.request")
+                    .description("Server-side handling time of a UIDL request")
+                    .tag("route", route)
+                    .tag("outcome", failure == null ? "SUCCESS" : "ERROR")
+                    .tag("exception", failure == null ? "none" : failure.toString())
+                    .register(registry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (session != null) {
+                sampleSessionSize(request.getWrappedSession(false), session, route);
+            }
+        }
+
+        void navigated(Map<Integer, String> routes, int uiId, AfterNavigationEvent event) {
+            var route = route(event);
+            var previous = routes.put(uiId, route);
+            if (!route.equals(previous)) {
+                if (previous != null) {
+                    activeUis(previous).decrementAndGet();
+                }
+                activeUis(route).incrementAndGet();
+            }
+            var request = VaadinRequest.getCurrent();
+            if (request != null && request.getAttribute(REQUEST_START) instanceof Long started) {
+                Timer.builder("vaadin.navigation")
+                        .description("Server-side time from the request that navigates to the view being shown")
+                        .tag("route", route)
+                        .register(registry)
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void closed(Map<Integer, String> routes, int uiId) {
+            var route = routes.remove(uiId);
+            if (route != null) {
+                activeUis(route).decrementAndGet();
+            }
+        }
+
+        private AtomicInteger activeUis(String route) {
+            return uis.computeIfAbsent(route, key -> {
+                var count = new AtomicInteger();
+                Gauge.builder("vaadin.ui.active", count, AtomicInteger::get)
+                        .description("Open UIs showing a route")
+                        .tag("route", key)
+                        .register(registry);
+                return count;
+            });
+        }
+
+        /**
+         * The route template of the view navigated to, so that path parameters and unknown paths cannot multiply the
+         * tag's values; {@code error} for error views.
+         */
+        private static String route(AfterNavigationEvent event) {
+            var chain = event.getActiveChain();
+            if (chain.isEmpty() || !(chain.getFirst() instanceof Component target)) {
+                return NO_ROUTE;
+            }
+            return RouteConfiguration.forApplicationScope().getTemplate(target.getClass()).orElse("error");
+        }
+
+        private static String route(VaadinRequest request) {
+            var routes = uiRoutes(request.getWrappedSession(false));
+            var uiId = request.getParameter(ApplicationConstants.UI_ID_PARAMETER);
+            if (routes == null || uiId == null) {
+                return NO_ROUTE;
+            }
+            try {
+                return routes.getOrDefault(Integer.valueOf(uiId), NO_ROUTE);
+            } catch (NumberFormatException e) {
+                return NO_ROUTE;
+            }
+        }
+
+        /**
+         * Writes the session out on a virtual thread once it can take the session's lock, after the request has
+         * released it. Only the byte count is kept.
+         */
+        private void sampleSessionSize(@Nullable WrappedSession wrappedSession, VaadinSession session, String route) {
+            var interval = properties.sessionSizeInterval();
+            if (wrappedSession == null || interval.isZero()) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (wrappedSession.getAttribute(SIZE_MEASURED) instanceof Long measured
+                    && now - measured < interval.toNanos()) {
+                return;
+            }
+            wrappedSession.setAttribute(SIZE_MEASURED, now);
+            Thread.ofVirtual().name("session-size").start(() -> {
+                try {
+                    session.accessSynchronously(() -> recordSessionSize(session, route));
+                } catch (RuntimeException e) {
+                    log.debug("Session closed before its size was measured", e);
+                }
+            });
+        }
+
+        private void recordSessionSize(VaadinSession session, String route) {
+            var counter = new CountingOutputStream();
+            try (var out = new ObjectOutputStream(counter)) {
+                out.writeObject(session);
+            } catch (IOException e) {
+                log.debug("Session is not serializable", e);
+                registry.counter("vaadin.session.size.failures", "exception", e.getClass().getSimpleName())
+                        .increment();
+                return;
+            }
+            DistributionSummary.builder("vaadin.session.size")
+                    .description("Serialized size of a Vaadin session")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tag("route", route)
+                    .register(registry)
+                    .record(counter.bytes);
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.sg.obs.base.utils;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Formatters for grid cells, built once per pattern and locale. Date formatters are immutable and shared; number
+ * formats are not thread-safe, so each thread gets its own copy.
+ */
+public final class CellFormats {
+
+    private static final Map<FormatKey, DateTimeFormatter> DATE_TIMES = new ConcurrentHashMap<>();
+    private static final Map<FormatKey, ThreadLocal<DecimalFormat>> NUMBERS = new ConcurrentHashMap<>();
+
+    private CellFormats() {
+    }
+
+    public static DateTimeFormatter dateTime(String pattern, Locale locale) {
+        return DATE_TIMES.computeIfAbsent(new FormatKey(pattern, locale),
+                key -> DateTimeFormatter.ofPattern(key.pattern(), key.locale()));
+    }
+
+    public static String dateTime(TemporalAccessor value, String pattern, Locale locale) {
+        return value == null ? "" : dateTime(pattern, locale).format(value);
+    }
+
+    /**
+     * Formats {@code value} with a {@link DecimalFormat} pattern such as {@code #,##0.00}; {@code null} is blank.
+     */
+    public static String number(Number value, String pattern, Locale locale) {
+        if (value == null) {
+            return "";
+        }
+        return NUMBERS.computeIfAbsent(new FormatKey(pattern, locale),
+                        key -> ThreadLocal.withInitial(
+                                () -> new DecimalFormat(key.pattern(), DecimalFormatSymbols.getInstance(key.locale()))))
+                .get()
+                .format(value);
+    }
+
+    private record FormatKey(String pattern, Locale locale) {}
+}
@@ -1,17 +1,20 @@
 package com.sg.obs.base.utils;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Optional;
+import java.util.Locale;
 
 public class DatetimeUtils {
 
+    public static final String DATE_SHORT_PATTERN = "dd/MM/yyyy hh:mm a";
+
     private DatetimeUtils() {
     }
 
     public static String formatDateShort(LocalDateTime dateTime) {
-        return Optional.ofNullable(dateTime)
-                .map(date -> date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy hh:mm a")))
-                .orElse("");
+        return CellFormats.dateTime(dateTime, DATE_SHORT_PATTERN, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public static String formatDateShort(LocalDateTime dateTime, Locale locale) {
+        return CellFormats.dateTime(dateTime, DATE_SHORT_PATTERN, locale);
     }
 }
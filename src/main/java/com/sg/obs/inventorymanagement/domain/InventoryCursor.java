@@ -0,0 +1,14 @@
+package com.sg.obs.inventorymanagement.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in the inventory history, which is ordered newest first by {@code (createdDate, id)}. The id breaks ties
+ * between rows created within the same second.
+ */
+public record InventoryCursor(LocalDateTime createdDate, Long id) {
+
+    public static InventoryCursor of(InventoryDetails inventory) {
+        return new InventoryCursor(inventory.getCreatedDate(), inventory.getId());
+    }
+}
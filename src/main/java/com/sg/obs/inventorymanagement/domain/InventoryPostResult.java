@@ -0,0 +1,15 @@
+package com.sg.obs.inventorymanagement.domain;
+
+/**
+ * Outcome of posting one line of a bulk inventory receipt.
+ */
+public record InventoryPostResult(int line, InventoryRequest request, boolean success, String message) {
+
+    public static InventoryPostResult success(int line, InventoryRequest request) {
+        return new InventoryPostResult(line, request, true, "Saved");
+    }
+
+    public static InventoryPostResult failure(int line, InventoryRequest request, String message) {
+        return new InventoryPostResult(line, request, false, message);
+    }
+}
@@ -0,0 +1,51 @@
+package com.sg.obs.inventorymanagement.domain;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Filters of the inventory history, pushed down to the backend as query parameters. Empty criteria do not filter;
+ * {@code createdTo} is inclusive.
+ */
+public record InventoryQuery(List<Long> itemIds, String type, LocalDate createdFrom, LocalDate createdTo,
+                             Integer minQuantity, Integer maxQuantity) {
+
+    public static final InventoryQuery ALL = new InventoryQuery(List.of(), null, null, null, null, null);
+
+    public InventoryQuery {
+        itemIds = itemIds == null ? List.of() : List.copyOf(itemIds);
+    }
+
+    /**
+     * The one item this query is limited to, which the backend serves from its per-item route.
+     */
+    public Optional<Long> singleItemId() {
+        return itemIds.size() == 1 ? Optional.of(itemIds.getFirst()) : Optional.empty();
+    }
+
+    /**
+     * Backend query parameters: {@code itemId} (repeated), {@code type}, {@code createdFrom}, {@code createdTo}
+     * (ISO dates), {@code minQuantity} and {@code maxQuantity}.
+     */
+    public Map<String, Object> toParams(boolean includeItemIds) {
+        Map<String, Object> params = new HashMap<>();
+        if (includeItemIds && !itemIds.isEmpty()) {
+            params.put("itemId", itemIds);
+        }
+        putIfPresent(params, "type", type);
+        putIfPresent(params, "createdFrom", createdFrom);
+        putIfPresent(params, "createdTo", createdTo);
+        putIfPresent(params, "minQuantity", minQuantity);
+        putIfPresent(params, "maxQuantity", maxQuantity);
+        return params;
+    }
+
+    private static void putIfPresent(Map<String, Object> params, String name, Object value) {
+        if (value != null) {
+            params.put(name, value.toString());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sg.obs.inventorymanagement.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,17 +10,28 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class InventorySummary {
 
-    private String itemId;
+    private Long itemId;
 
     private String itemName;
 
-    private String totalTopUp;
+    private long totalTopUp;
 
-    private String totalWithdraw;
+    private long totalWithdraw;
 
-    private String remainingStock;
+    private long remainingStock;
 
-    private String topUpCount;
+    private long topUpCount;
 
-    private String withdrawCount;
+    private long withdrawCount;
+
+    /**
+     * Set when the summary is the last known value served because the backend could not answer.
+     */
+    @JsonIgnore
+    private boolean stale;
+
+    public InventorySummary asStale() {
+        return new InventorySummary(itemId, itemName, totalTopUp, totalWithdraw, remainingStock, topUpCount,
+                withdrawCount, true);
+    }
 }
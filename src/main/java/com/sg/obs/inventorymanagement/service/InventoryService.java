@@ -1,89 +1,359 @@
 package com.sg.obs.inventorymanagement.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.sg.obs.base.config.WebClientLoggingFilter;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sg.obs.base.client.ApiEnvelope;
+import com.sg.obs.base.client.BackendEndpoint;
+import com.sg.obs.base.client.BackendResilience;
+import com.sg.obs.base.client.BackendResponseException;
+import com.sg.obs.base.client.QueryParams;
+import com.sg.obs.base.client.SingleFlight;
+import com.sg.obs.base.client.StalePage;
+import com.sg.obs.base.client.StaleSlice;
+import com.sg.obs.base.config.BackendClientProperties;
+import com.sg.obs.base.config.CacheProperties;
+import com.sg.obs.base.domain.CursorDirection;
+import com.sg.obs.base.domain.CursorPage;
+import com.sg.obs.inventorymanagement.domain.InventoryCursor;
 import com.sg.obs.inventorymanagement.domain.InventoryDetails;
+import com.sg.obs.inventorymanagement.domain.InventoryPostResult;
+import com.sg.obs.inventorymanagement.domain.InventoryQuery;
 import com.sg.obs.inventorymanagement.domain.InventoryRequest;
 import com.sg.obs.inventorymanagement.domain.InventorySummary;
 import com.sg.obs.itemmanagement.domain.PageWrapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class InventoryService {
 
+    /**
+     * How long batches are fanned out after the backend answered that it has no batch summary endpoint, before the
+     * endpoint is tried again (it may have been deployed meanwhile, or the answer came from a misrouted request).
+     */
+    private static final Duration SUMMARY_BATCH_REPROBE_INTERVAL = Duration.ofMinutes(5);
+
+    private static final ParameterizedTypeReference<ApiEnvelope<PageWrapper<InventoryDetails>>> INVENTORY_PAGE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<ApiEnvelope<CursorResponse<InventoryDetails>>>
+            INVENTORY_CURSOR_PAGE = new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<ApiEnvelope<InventorySummary>> SUMMARY =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<ApiEnvelope<List<InventorySummary>>> SUMMARY_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+
     private final WebClient webClient;
 
-    private final ObjectMapper mapper;
+    private final SingleFlight singleFlight;
+
+    private final BackendResilience resilience;
+
+    private final int bulkConcurrency;
+
+    /**
+     * Summaries keyed by item ID. A save invalidates its item here (including a load still in flight), so the saving
+     * session always reads the new totals; other nodes converge within {@code expireAfterWrite}.
+     */
+    private final AsyncLoadingCache<String, InventorySummary> summaries;
+
+    /**
+     * {@link System#nanoTime()} from which the batch summary endpoint is used. Pushed
+     * {@link #SUMMARY_BATCH_REPROBE_INTERVAL} ahead whenever the backend answers that it does not have it, batches
+     * being fanned out as single summary calls until then.
+     */
+    private final AtomicLong summaryBatchRetryAt = new AtomicLong(System.nanoTime());
 
-    public InventoryService(WebClient.Builder webClientBuilder, ObjectMapper mapper) {
-        this.webClient = webClientBuilder.baseUrl("http://localhost:8878/v1/inventories")
-                .filter(WebClientLoggingFilter.logAndHandleErrors(mapper))
-                .build();
-        this.mapper = mapper;
+    /**
+     * Approximate inventory totals per query for count-free paging.
+     */
+    private final AsyncLoadingCache<InventoryQuery, Long> counts;
+
+    public InventoryService(WebClient backendWebClient, SingleFlight singleFlight,
+                            BackendResilience resilience, BackendClientProperties clientProperties,
+                            CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        this.webClient = backendWebClient;
+        this.singleFlight = singleFlight;
+        this.resilience = resilience;
+        this.bulkConcurrency = clientProperties.bulk().concurrency();
+        var settings = cacheProperties.summaries();
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(settings.maxSize())
+                .expireAfterWrite(settings.expireAfterWrite())
+                .recordStats()
+                .buildAsync(new AsyncCacheLoader<String, InventorySummary>() {
+                    @Override
+                    public CompletableFuture<InventorySummary> asyncLoad(String itemId, Executor executor) {
+                        return fetchSummary(itemId).toFuture();
+                    }
+
+                    @Override
+                    public CompletableFuture<Map<String, InventorySummary>> asyncLoadAll(
+                            Set<? extends String> itemIds, Executor executor) {
+                        return fetchSummaries(itemIds).toFuture();
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries.synchronous(), "inventories.summaries");
+
+        var countSettings = cacheProperties.counts();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(countSettings.maxSize())
+                .expireAfterWrite(countSettings.expireAfterWrite())
+                .recordStats()
+                .buildAsync((query, executor) -> getAllInventory(PageRequest.of(0, 1), query)
+                        .map(Page::getTotalElements)
+                        .toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, counts.synchronous(), "inventories.counts");
     }
 
 
     public void saveInventory(InventoryRequest body) {
-        webClient.post()
-                .uri("")
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(Void.class)
-                .block();
+        postInventory(body).block();
 
         log.info("Saving inventory for item: {}, quantity: {},Type: {}", body.itemId(), body.quantity(), body.type());
     }
 
-    public Mono<Page<InventoryDetails>> getAllInventory(Pageable pageable, String filter) {
-        if (!StringUtils.isBlank(filter)) {
-            return getAllInventoryByItemId(pageable, filter);
-        }
-        return getAllInventory(pageable);
+    /**
+     * Posts a receipt of many lines through a bounded number of concurrent requests, pulling the next line only when
+     * a slot frees up. Results are emitted in line order (1-based), failures carry the backend's error message.
+     */
+    public Flux<InventoryPostResult> saveInventories(Flux<InventoryRequest> requests) {
+        return requests.index()
+                .flatMapSequential(line -> {
+                    int lineNumber = line.getT1().intValue() + 1;
+                    var request = line.getT2();
+                    return postInventory(request)
+                            .thenReturn(InventoryPostResult.success(lineNumber, request))
+                            .onErrorResume(e -> Mono.just(InventoryPostResult.failure(lineNumber, request,
+                                    e.getMessage())));
+                }, bulkConcurrency);
     }
 
-    protected Mono<Page<InventoryDetails>> getAllInventory(Pageable pageable) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder.path("")
-                        .queryParam("page", pageable.getPageNumber())
-                        .queryParam("size", pageable.getPageSize())
-                        .build())
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PageWrapper<InventoryDetails>>() {
-                })
-                .map(PageWrapper::getData)
-                .map(page -> new PageImpl<>(page.getContent(), pageable, page.getMetadata().getTotalElements()));
+    private Mono<Void> postInventory(InventoryRequest body) {
+        return resilience.write(BackendEndpoint.INVENTORIES_SAVE, webClient.post()
+                        .uri("/inventories")
+                        .attributes(BackendEndpoint.INVENTORIES_SAVE::tag)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(Void.class))
+                .doOnSuccess(it -> {
+                    singleFlight.forget("/inventories");
+                    summaries.synchronous().invalidate(String.valueOf(body.itemId()));
+                });
     }
 
-    protected Mono<Page<InventoryDetails>> getAllInventoryByItemId(Pageable pageable, String filter) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder.path("/items/{itemId}")
-                        .queryParam("page", pageable.getPageNumber())
-                        .queryParam("size", pageable.getPageSize())
-                        .build(filter))
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PageWrapper<InventoryDetails>>() {
-                })
-                .map(PageWrapper::getData)
+    /**
+     * Inventory history matching {@code query}, filtered and sorted by the backend.
+     */
+    public Mono<Page<InventoryDetails>> getAllInventory(Pageable pageable, InventoryQuery query) {
+        var target = InventoryTarget.of(query);
+        var params = QueryParams.withSort(target.params(Map.of(
+                "page", pageable.getPageNumber(),
+                "size", pageable.getPageSize())), pageable.getSort());
+        Mono<Page<InventoryDetails>> call = target.get(webClient, params)
+                .bodyToMono(INVENTORY_PAGE)
+                .map(ApiEnvelope::requireData)
                 .map(page -> new PageImpl<>(page.getContent(), pageable, page.getMetadata().getTotalElements()));
+        return read(target.endpoint(), target.key(params), call, StalePage::of);
+    }
+
+    /**
+     * Like {@link #getAllInventory} but without a total, so the backend can skip its count query. One row more than
+     * the page size is requested, only to tell whether a next page exists.
+     */
+    public Mono<Slice<InventoryDetails>> getInventorySlice(Pageable pageable, InventoryQuery query) {
+        var target = InventoryTarget.of(query);
+        var params = QueryParams.withSort(target.params(Map.of(
+                "offset", pageable.getOffset(),
+                "limit", pageable.getPageSize() + 1,
+                "count", false)), pageable.getSort());
+        Mono<Slice<InventoryDetails>> call = target.get(webClient, params)
+                .bodyToMono(INVENTORY_PAGE)
+                .map(ApiEnvelope::requireData)
+                .map(page -> toSlice(page.getContent(), pageable));
+        return read(target.endpoint(), target.key(params), call, StaleSlice::of);
+    }
+
+    /**
+     * Total number of inventories matching {@code query}, cached for {@code obs.cache.counts.expire-after-write}.
+     */
+    public Mono<Long> getApproximateInventoryCount(InventoryQuery query) {
+        return Mono.fromFuture(() -> counts.get(query), true);
+    }
+
+    private static <T> Slice<T> toSlice(List<T> rows, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Inventory history matching {@code query}, paged by keyset on {@code (createdDate, id)}, newest first. The
+     * backend seeks straight to the cursor instead of skipping offset rows, so the last page of a long history costs
+     * the same as the first.
+     *
+     * @param cursor the first row of the current page for {@link CursorDirection#PREVIOUS}, its last row for
+     *               {@link CursorDirection#NEXT}; ignored otherwise
+     */
+    public Mono<CursorPage<InventoryDetails>> getInventoryHistory(InventoryCursor cursor, CursorDirection direction,
+                                                                  int size, InventoryQuery query) {
+        var target = InventoryTarget.of(query);
+        Map<String, Object> cursorParams = new HashMap<>();
+        cursorParams.put("size", size);
+        cursorParams.put("direction", direction.name().toLowerCase(Locale.ROOT));
+        if (cursor != null && (direction == CursorDirection.PREVIOUS || direction == CursorDirection.NEXT)) {
+            cursorParams.put("cursorDate", cursor.createdDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            cursorParams.put("cursorId", cursor.id());
+        }
+        var params = target.params(cursorParams);
+        Mono<CursorPage<InventoryDetails>> call = target.get(webClient, params)
+                .bodyToMono(INVENTORY_CURSOR_PAGE)
+                .map(ApiEnvelope::requireData)
+                .map(page -> new CursorPage<>(page.content(), page.hasPrevious(), page.hasNext(), false));
+        return read(target.endpoint(), target.key(params), call, CursorPage::asStale);
+    }
+
+    /**
+     * Identical concurrent reads share one guarded backend call, which falls back to the last good result.
+     */
+    private <T> Mono<T> read(BackendEndpoint endpoint, String key, Mono<T> call, UnaryOperator<T> asStale) {
+        return singleFlight.execute(endpoint, key, () -> resilience.read(endpoint, key, call, asStale));
     }
 
     public Mono<InventorySummary> getSummaryByItemId(String itemId) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder.path("/items/{itemId}/summary").build(itemId))
+        return Mono.fromFuture(() -> summaries.get(itemId.trim()), true);
+    }
+
+    /**
+     * Summaries of all {@code itemIds} (a grid page, say), keyed by item ID. Cached summaries are served as they are;
+     * the missing ones are fetched together in one batch call. Items the backend does not know are left out.
+     */
+    public Mono<Map<Long, InventorySummary>> getSummaries(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        var keys = itemIds.stream().map(String::valueOf).collect(Collectors.toSet());
+        return Mono.fromFuture(() -> summaries.getAll(keys), true)
+                .map(found -> found.entrySet().stream()
+                        .collect(Collectors.toMap(it -> Long.valueOf(it.getKey()), Map.Entry::getValue)));
+    }
+
+    private Mono<Map<String, InventorySummary>> fetchSummaries(Set<? extends String> itemIds) {
+        if (System.nanoTime() - summaryBatchRetryAt.get() < 0) {
+            return fanOutSummaries(itemIds);
+        }
+        var ids = itemIds.stream().sorted().toList();
+        var params = Map.<String, Object>of("itemId", ids);
+        var key = SingleFlight.key("/inventories/summaries", params);
+        Mono<List<InventorySummary>> call = webClient.get()
+                .uri(uriBuilder -> QueryParams.addTo(uriBuilder.path("/inventories/summaries"), params).build())
+                .attributes(BackendEndpoint.INVENTORIES_SUMMARY_BATCH::tag)
+                .retrieve()
+                .bodyToMono(SUMMARY_LIST)
+                .map(ApiEnvelope::requireData);
+        return read(BackendEndpoint.INVENTORIES_SUMMARY_BATCH, key, call,
+                stale -> stale.stream().map(InventorySummary::asStale).toList())
+                .map(found -> found.stream()
+                        .collect(Collectors.toMap(it -> String.valueOf(it.getItemId()), it -> it, (a, b) -> a)))
+                .onErrorResume(BackendResponseException.class, e -> {
+                    if (e.getStatus() != 404 && e.getStatus() != 405 && e.getStatus() != 501) {
+                        return Mono.error(e);
+                    }
+                    log.info("Backend has no batch summary endpoint ({}), fetching summaries one by one for {}",
+                            e.getStatus(), SUMMARY_BATCH_REPROBE_INTERVAL);
+                    summaryBatchRetryAt.set(System.nanoTime() + SUMMARY_BATCH_REPROBE_INTERVAL.toNanos());
+                    return fanOutSummaries(itemIds);
+                });
+    }
+
+    /**
+     * One summary call per item, {@code obs.backend.bulk.concurrency} at a time. A failing item is left out rather
+     * than failing the whole batch.
+     */
+    private Mono<Map<String, InventorySummary>> fanOutSummaries(Set<? extends String> itemIds) {
+        return Flux.fromIterable(itemIds)
+                .flatMap(itemId -> fetchSummary(itemId)
+                        .map(summary -> Map.entry(itemId, summary))
+                        .onErrorResume(e -> {
+                            log.debug("Summary of item {} unavailable", itemId, e);
+                            return Mono.empty();
+                        }), bulkConcurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private Mono<InventorySummary> fetchSummary(String itemId) {
+        var key = SingleFlight.key("/inventories/items/" + itemId + "/summary", Map.of());
+        Mono<InventorySummary> call = webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/inventories/items/{itemId}/summary").build(itemId))
+                .attributes(BackendEndpoint.INVENTORIES_SUMMARY::tag)
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
-                })
-                .map(it -> mapper.convertValue(it.get("data"), InventorySummary.class));
+                .bodyToMono(SUMMARY)
+                .map(ApiEnvelope::requireData);
+        return read(BackendEndpoint.INVENTORIES_SUMMARY, key, call, InventorySummary::asStale);
+    }
+
+    /**
+     * Where a query is sent: a query for exactly one item goes to the per-item route, everything else to the list
+     * route with repeated {@code itemId} parameters.
+     */
+    private record InventoryTarget(String path, BackendEndpoint endpoint, String itemId, Map<String, Object> filters) {
+
+        static InventoryTarget of(InventoryQuery query) {
+            return query.singleItemId()
+                    .map(id -> new InventoryTarget("/inventories/items/{itemId}", BackendEndpoint.INVENTORIES_BY_ITEM,
+                            String.valueOf(id), query.toParams(false)))
+                    .orElseGet(() -> new InventoryTarget("/inventories", BackendEndpoint.INVENTORIES_LIST, "",
+                            query.toParams(true)));
+        }
+
+        Map<String, Object> params(Map<String, Object> paging) {
+            Map<String, Object> params = new HashMap<>(filters);
+            params.putAll(paging);
+            return params;
+        }
+
+        String key(Map<String, Object> params) {
+            return SingleFlight.key(path.replace("{itemId}", itemId), params);
+        }
+
+        WebClient.ResponseSpec get(WebClient webClient, Map<String, Object> params) {
+            return webClient.get()
+                    .uri(uriBuilder -> QueryParams.addTo(uriBuilder.path(path), params).build(itemId))
+                    .attributes(endpoint::tag)
+                    .retrieve();
+        }
+    }
+
+    private record CursorResponse<T>(List<T> content, boolean hasPrevious, boolean hasNext) {
     }
 }
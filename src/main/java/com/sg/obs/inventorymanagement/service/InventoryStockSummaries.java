@@ -0,0 +1,32 @@
+package com.sg.obs.inventorymanagement.service;
+
+import com.sg.obs.itemmanagement.domain.ItemStockSummary;
+import com.sg.obs.itemmanagement.service.ItemStockSummaries;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Serves the item grid's stock columns from the batched inventory summaries.
+ */
+@Service
+class InventoryStockSummaries implements ItemStockSummaries {
+
+    private final InventoryService inventoryService;
+
+    InventoryStockSummaries(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @Override
+    public Mono<Map<Long, ItemStockSummary>> getStockSummaries(Collection<Long> itemIds) {
+        return inventoryService.getSummaries(itemIds)
+                .map(summaries -> summaries.entrySet().stream()
+                        .collect(Collectors.toMap(Map.Entry::getKey, it -> new ItemStockSummary(
+                                it.getValue().getRemainingStock(), it.getValue().getTotalTopUp(),
+                                it.getValue().getTotalWithdraw()))));
+    }
+}
@@ -0,0 +1,176 @@
+package com.sg.obs.inventorymanagement.ui.view;
+
+import com.sg.obs.inventorymanagement.domain.InventoryPostResult;
+import com.sg.obs.inventorymanagement.domain.InventoryRequest;
+import com.sg.obs.inventorymanagement.service.InventoryService;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.notification.NotificationVariant;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.textfield.TextArea;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Posts a pasted receipt ({@code itemId,quantity,type} per line) through {@link InventoryService#saveInventories} and
+ * shows per-line results as they come back.
+ */
+class BulkReceiptDialog {
+
+    private final Dialog dialog = new Dialog();
+    private final TextArea linesField = new TextArea("Receipt lines");
+    private final ProgressBar progress = new ProgressBar();
+    private final Span progressText = new Span();
+    private final Grid<InventoryPostResult> resultsGrid = new Grid<>();
+    private final Button postBtn = new Button("Post");
+    private final Button closeBtn = new Button("Close");
+
+    private final List<InventoryPostResult> results = new ArrayList<>();
+    private final transient InventoryService inventoryService;
+    private final Runnable onPosted;
+    private transient Disposable running;
+
+    BulkReceiptDialog(InventoryService inventoryService, Runnable onPosted) {
+        this.inventoryService = inventoryService;
+        this.onPosted = onPosted;
+
+        dialog.setHeaderTitle("Bulk Receipt");
+        dialog.setWidth("800px");
+        dialog.setCloseOnEsc(false);
+        dialog.setCloseOnOutsideClick(false);
+
+        linesField.setWidthFull();
+        linesField.setHeight("200px");
+        linesField.setPlaceholder("itemId,quantity,type\n12,40,T\n15,3,W");
+        linesField.setHelperText("One line per record: item ID, quantity and T (top-up) or W (withdrawal)");
+
+        progress.setVisible(false);
+        resultsGrid.addColumn(InventoryPostResult::line).setHeader("Line").setAutoWidth(true);
+        resultsGrid.addColumn(it -> it.request() == null ? "" : it.request().itemId()).setHeader("Item ID").setAutoWidth(true);
+        resultsGrid.addColumn(it -> it.request() == null ? "" : it.request().quantity()).setHeader("Quantity").setAutoWidth(true);
+        resultsGrid.addColumn(it -> it.request() == null ? "" : it.request().type()).setHeader("Type").setAutoWidth(true);
+        resultsGrid.addColumn(it -> it.success() ? "✅" : "❌").setHeader("Status").setAutoWidth(true);
+        resultsGrid.addColumn(InventoryPostResult::message).setHeader("Message").setFlexGrow(1);
+        resultsGrid.setHeight("250px");
+
+        postBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        postBtn.addClickListener(e -> post());
+        closeBtn.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        closeBtn.addClickListener(e -> dialog.close());
+
+        dialog.add(new VerticalLayout(linesField, progress, progressText, resultsGrid));
+        dialog.getFooter().add(new HorizontalLayout(postBtn, closeBtn));
+        dialog.addDetachListener(e -> cancel());
+    }
+
+    void open() {
+        dialog.open();
+    }
+
+    private void post() {
+        var ui = UI.getCurrent();
+        var lines = linesField.getValue().lines().toList();
+        var requests = new ArrayList<InventoryRequest>();
+        var requestLines = new ArrayList<Integer>();
+
+        results.clear();
+        for (int i = 0; i < lines.size(); i++) {
+            var line = lines.get(i).trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                requests.add(parse(line));
+                requestLines.add(i + 1);
+            } catch (IllegalArgumentException e) {
+                results.add(InventoryPostResult.failure(i + 1, null, e.getMessage()));
+            }
+        }
+        if (requests.isEmpty() && results.isEmpty()) {
+            Notification.show("Nothing to post", 3000, Notification.Position.TOP_CENTER);
+            return;
+        }
+
+        int total = requests.size() + results.size();
+        setRunning(true);
+        updateProgress(total);
+
+        running = inventoryService.saveInventories(Flux.fromIterable(requests))
+                .map(it -> new InventoryPostResult(requestLines.get(it.line() - 1), it.request(), it.success(),
+                        it.message()))
+                .bufferTimeout(50, Duration.ofMillis(250))
+                .subscribe(batch -> ui.access(() -> {
+                            results.addAll(batch);
+                            updateProgress(total);
+                        }),
+                        error -> ui.access(() -> {
+                            setRunning(false);
+                            Notification.show("Bulk receipt stopped: " + error.getMessage(), 5000,
+                                    Notification.Position.TOP_CENTER).addThemeVariants(NotificationVariant.LUMO_ERROR);
+                        }),
+                        () -> ui.access(() -> {
+                            setRunning(false);
+                            finished();
+                        }));
+    }
+
+    private static InventoryRequest parse(String line) {
+        var parts = line.split("\\s*[,;\\t]\\s*");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected itemId,quantity,type");
+        }
+        try {
+            var type = parts[2].toUpperCase();
+            if (!type.equals("T") && !type.equals("W")) {
+                throw new IllegalArgumentException("Type must be T or W");
+            }
+            int quantity = Integer.parseInt(parts[1]);
+            if (quantity < 1) {
+                throw new IllegalArgumentException("Minimum quantity is 1");
+            }
+            return new InventoryRequest(Long.parseLong(parts[0]), quantity, type);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Item ID and quantity must be numbers");
+        }
+    }
+
+    private void updateProgress(int total) {
+        results.sort(Comparator.comparingInt(InventoryPostResult::line));
+        resultsGrid.setItems(results);
+        progress.setValue(total == 0 ? 1 : (double) results.size() / total);
+        progressText.setText(results.size() + " of " + total + " lines processed");
+    }
+
+    private void finished() {
+        long failed = results.stream().filter(it -> !it.success()).count();
+        var notification = Notification.show((results.size() - failed) + " lines saved, " + failed + " failed", 5000,
+                Notification.Position.TOP_CENTER);
+        notification.addThemeVariants(failed == 0 ? NotificationVariant.LUMO_SUCCESS : NotificationVariant.LUMO_WARNING);
+        onPosted.run();
+    }
+
+    private void setRunning(boolean running) {
+        progress.setVisible(true);
+        postBtn.setEnabled(!running);
+        closeBtn.setEnabled(!running);
+        linesField.setReadOnly(running);
+    }
+
+    private void cancel() {
+        if (running != null) {
+            running.dispose();
+        }
+    }
+}
@@ -1,18 +1,22 @@
 package com.sg.obs.inventorymanagement.ui.view;
 
 
+import com.sg.obs.base.config.BackendClientProperties;
 import com.sg.obs.base.ui.component.PaginatedGrid;
+import com.sg.obs.base.ui.component.ViewLoader;
+import com.sg.obs.base.utils.CellFormats;
 import com.sg.obs.base.utils.DatetimeUtils;
+import com.sg.obs.inventorymanagement.domain.InventoryCursor;
 import com.sg.obs.inventorymanagement.domain.InventoryDetails;
 import com.sg.obs.inventorymanagement.domain.InventoryRequest;
 import com.sg.obs.inventorymanagement.domain.InventorySummary;
 import com.sg.obs.inventorymanagement.service.InventoryService;
-import com.sg.obs.itemmanagement.domain.ItemDto;
+import com.sg.obs.itemmanagement.domain.ItemOption;
 import com.sg.obs.itemmanagement.service.ItemService;
 import com.sg.obs.security.AppRoles;
-import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
@@ -22,14 +26,16 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.NumberField;
 import com.vaadin.flow.component.textfield.TextField;
-import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.data.renderer.LitRenderer;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.theme.lumo.LumoUtility;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.security.RolesAllowed;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Objects;
@@ -41,7 +47,7 @@ import java.util.Objects;
 @Slf4j
 public class InventoryManagementView extends VerticalLayout {
 
-    private final ComboBox<ItemDto> itemComboBox = new ComboBox<>("Item");
+    private final ComboBox<ItemOption> itemComboBox = new ComboBox<>("Item");
     private final NumberField quantityField = new NumberField("Quantity");
     private final Button saveInvBtn = new Button("Save");
 
@@ -52,6 +58,7 @@ public class InventoryManagementView extends VerticalLayout {
     private final TextField withdrawalCount = new TextField("Withdrawal Count");
     private final TextField itemName = new TextField("Item Name");
     private final TextField itemId = new TextField("Item ID");
+    private final Span summaryStale = new Span("Stale");
 
     private final PaginatedGrid<InventoryDetails> paginatedGrid;
 
@@ -61,14 +68,22 @@ public class InventoryManagementView extends VerticalLayout {
 
     private final transient InventoryService inventoryService;
     private final transient ItemService itemService;
+    private final transient ViewLoader loader;
 
-    public InventoryManagementView(InventoryService inventoryService, ItemService itemService) {
+    public InventoryManagementView(InventoryService inventoryService, ItemService itemService,
+                                   MeterRegistry meterRegistry, BackendClientProperties clientProperties) {
         this.itemService = itemService;
         this.inventoryService = inventoryService;
+        // The summary, the item picker and the history grid load side by side; the grid has its own pipeline
+        this.loader = new ViewLoader("inventories", meterRegistry)
+                .section("summary", this::fetchSummary, this::showSummary, this::summaryFailed)
+                .section("items", () -> itemService.countOptions(""), count -> {
+                }, error -> log.debug("Item lookup warm-up failed", error));
         this.paginatedGrid = new PaginatedGrid<>(
                 InventoryDetails.class,
-                (pageable, filter) -> Objects.requireNonNull(inventoryService.getAllInventory(pageable, filter).block())
+                (pageable, filter) -> inventoryService.getAllInventory(pageable, InventoryQueries.from(filter))
         );
+        paginatedGrid.setRowId(InventoryDetails::getId);
 
         setSizeFull();
         setPadding(true);
@@ -77,9 +92,17 @@ public class InventoryManagementView extends VerticalLayout {
         createTopSection();
         createTableSection();
         setSaveInvBtn();
+        if (clientProperties.paging().keyset()) {
+            paginatedGrid.setCursorPaging((cursor, direction, size, filter) -> inventoryService.getInventoryHistory(
+                    cursor == null ? null : InventoryCursor.of(cursor), direction, size, InventoryQueries.from(filter)));
+        }
 
         paginatedGrid.addActionColumn(it -> Notification.show("Edit Inventory").setPosition(Notification.Position.TOP_CENTER), it -> Notification.show("Delete Inventory").setPosition(Notification.Position.TOP_CENTER));
-        UI.getCurrent().access(() -> paginatedGrid.loadPage(0));
+        paginatedGrid.addRowsLoadedListener(rows -> loader.record("history", paginatedGrid.getLastLoadDuration()));
+        addDetachListener(e -> loader.cancel());
+
+        paginatedGrid.loadPage(0);
+        loader.load();
     }
 
     private void createTopSection() {
@@ -111,14 +134,19 @@ public class InventoryManagementView extends VerticalLayout {
         Span title = new Span("Record Inventory");
         title.addClassNames(LumoUtility.TextColor.HEADER, LumoUtility.FontSize.LARGE, LumoUtility.FontWeight.BOLD);
 
-        itemComboBox.setItemsPageable((p, filter) -> Objects.requireNonNull(itemService.getItems(p, filter).block()).getContent());
-        itemComboBox.setItemLabelGenerator(it -> StringUtils.capitalize(it.getId() + "-" + it.getName()));
+        // The ComboBox callbacks are synchronous; the "items" section warms the shared lookup so the first open is
+        // served from memory
+        itemComboBox.setItems(
+                query -> Objects.requireNonNull(itemService.findOptions(query.getFilter().orElse(""), query.getOffset(),
+                        query.getLimit()).block()).stream(),
+                query -> Objects.requireNonNull(itemService.countOptions(query.getFilter().orElse("")).block()));
+        itemComboBox.setItemLabelGenerator(it -> StringUtils.capitalize(it.id() + "-" + it.name()));
         itemComboBox.setAutoOpen(true);
         itemComboBox.setRequiredIndicatorVisible(true);
         itemComboBox.setWidthFull();
         itemComboBox.addValueChangeListener(e -> {
             if (e.getValue() != null) {
-                itemIdToAdd = e.getValue().getId();
+                itemIdToAdd = e.getValue().id();
             }
         });
 
@@ -147,7 +175,15 @@ public class InventoryManagementView extends VerticalLayout {
         saveInvBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
         saveInvBtn.setWidthFull();
 
-        section.add(title, itemComboBox, quantityField, invType, saveInvBtn);
+        Button bulkReceiptBtn = new Button("Bulk Receipt");
+        bulkReceiptBtn.addThemeVariants(ButtonVariant.LUMO_TERTIARY);
+        bulkReceiptBtn.setWidthFull();
+        bulkReceiptBtn.addClickListener(e -> new BulkReceiptDialog(inventoryService, () -> {
+            paginatedGrid.loadPage(0);
+            loader.load("summary");
+        }).open());
+
+        section.add(title, itemComboBox, quantityField, invType, saveInvBtn, bulkReceiptBtn);
         return section;
     }
 
@@ -163,12 +199,18 @@ public class InventoryManagementView extends VerticalLayout {
         Span title = new Span("Inventory Summary");
         title.addClassNames(LumoUtility.FontWeight.BOLD, LumoUtility.FontSize.MEDIUM);
 
+        summaryStale.getElement().getThemeList().add("badge contrast");
+        summaryStale.getElement().setAttribute("title", "Backend unavailable - showing the last known totals");
+        summaryStale.setVisible(false);
+        HorizontalLayout header = new HorizontalLayout(title, summaryStale);
+        header.setAlignItems(FlexComponent.Alignment.CENTER);
+
         itemId.setWidthFull();
         itemId.setPlaceholder("Enter Item ID");
         itemId.addValueChangeListener(e -> {
             if (e.getValue() != null) {
                 paginatedGrid.setFilter(e.getValue());
-                setSummaryData(e.getValue());
+                loader.load("summary");
             }
         });
 
@@ -199,7 +241,7 @@ public class InventoryManagementView extends VerticalLayout {
         configureSummaryField(totalWithdrawal);
         configureSummaryField(totalStock);
 
-        section.add(title, itemId, itemName, summaryRow);
+        section.add(header, itemId, itemName, summaryRow);
         return section;
     }
 
@@ -222,48 +264,70 @@ public class InventoryManagementView extends VerticalLayout {
         Span tableTitle = new Span("Inventory Details");
         tableTitle.addClassNames(LumoUtility.TextColor.HEADER, LumoUtility.FontSize.LARGE, LumoUtility.FontWeight.BOLD);
 
+        // Long histories are easier to audit by scrolling than by clicking through hundreds of pages
+        Checkbox infiniteScroll = new Checkbox("Infinite scroll");
+        infiniteScroll.addValueChangeListener(e -> paginatedGrid.setInfiniteScroll(e.getValue()));
+        HorizontalLayout tableHeader = new HorizontalLayout(tableTitle, infiniteScroll);
+        tableHeader.setWidthFull();
+        tableHeader.setAlignItems(FlexComponent.Alignment.CENTER);
+        tableHeader.setJustifyContentMode(FlexComponent.JustifyContentMode.BETWEEN);
+
         paginatedGrid.setSizeFull();
-        paginatedGrid.addColumn(InventoryDetails::getId).setHeader("ID").setAutoWidth(true);
-        paginatedGrid.addColumn(new ComponentRenderer<>(inventoryDetails -> {
-            Button itemNameBtn = new Button(inventoryDetails.getItemName());
-            itemNameBtn.addThemeVariants(ButtonVariant.LUMO_TERTIARY_INLINE);
-            itemNameBtn.addClickListener(e -> itemId.setValue(String.valueOf(inventoryDetails.getItemId())));
-            return itemNameBtn;
-        })).setHeader("Item Name").setAutoWidth(true);
-        paginatedGrid.addColumn(InventoryDetails::getQuantity).setHeader("Quantity").setAutoWidth(true);
-        paginatedGrid.addColumn(InventoryDetails::getType).setHeader("Type").setAutoWidth(true);
-        paginatedGrid.addColumn(it -> DatetimeUtils.formatDateShort(it.getCreatedDate())).setHeader("Created Date").setAutoWidth(true);
-        paginatedGrid.addColumn(it -> DatetimeUtils.formatDateShort(it.getUpdatedDate())).setHeader("Updated Date").setAutoWidth(true);
-
-        tableSection.add(tableTitle, paginatedGrid);
+        paginatedGrid.addColumn(InventoryDetails::getId, "ID", "id");
+        // Rendered on the client: one button per row would be a server-side component per row
+        var itemColumn = paginatedGrid.addColumn(LitRenderer.<InventoryDetails>of(
+                        "<vaadin-button theme=\"tertiary-inline\" @click=\"${select}\">${item.itemName}</vaadin-button>")
+                .withProperty("itemName", InventoryDetails::getItemName)
+                .withFunction("select", it -> itemId.setValue(String.valueOf(it.getItemId())))
+        ).setHeader("Item Name").setAutoWidth(true);
+        var locale = getLocale();
+        var quantityColumn = paginatedGrid.addDisplayColumn(it -> CellFormats.number(it.getQuantity(), "#,##0", locale), "Quantity", "quantity");
+        var typeColumn = paginatedGrid.addColumn(InventoryDetails::getType, "Type", "type");
+        var createdColumn = paginatedGrid.addDisplayColumn(it -> DatetimeUtils.formatDateShort(it.getCreatedDate(), locale), "Created Date", "createdDate");
+        paginatedGrid.addDisplayColumn(it -> DatetimeUtils.formatDateShort(it.getUpdatedDate(), locale), "Updated Date", "updatedDate");
+
+        // Filtered by the backend; see InventoryQueries for the accepted syntax
+        paginatedGrid.addColumnFilter(itemColumn, InventoryQueries.ITEM_IDS, "IDs, e.g. 3,7")
+                .setAllowedCharPattern("[0-9, ]");
+        paginatedGrid.addColumnFilter(quantityColumn, InventoryQueries.QUANTITY, ">100, 10-50")
+                .setAllowedCharPattern("[0-9<>=\\- ]");
+        paginatedGrid.addColumnFilter(typeColumn, InventoryQueries.TYPE, "T or W")
+                .setAllowedCharPattern("[TWtw]");
+        paginatedGrid.addColumnFilter(createdColumn, InventoryQueries.CREATED, "yyyy-MM-dd..yyyy-MM-dd")
+                .setAllowedCharPattern("[0-9\\-.]");
+
+        tableSection.add(tableHeader, paginatedGrid);
         add(tableSection);
     }
 
-    private void setSummaryData(String itemId) {
-        try {
-            if (StringUtils.isBlank(itemId)) {
-                clearSummary();
-                return;
-            }
-            InventorySummary summary = inventoryService.getSummaryByItemId(itemId).block();
-            if (summary != null) {
-                itemName.setValue(summary.getItemName());
-                totalTopUp.setValue(summary.getTotalTopUp());
-                totalWithdrawal.setValue(summary.getTotalWithdraw());
-                totalStock.setValue(summary.getRemainingStock());
-                topUpCount.setValue(summary.getTopUpCount());
-                withdrawalCount.setValue(summary.getWithdrawCount());
-                return;
-            }
-            throw new RuntimeException("Summary not found");
-        } catch (Exception e) {
-            Notification.show(e.getMessage(), 3000, Notification.Position.TOP_CENTER)
-                    .addThemeVariants(NotificationVariant.LUMO_ERROR);
+    private Mono<InventorySummary> fetchSummary() {
+        var id = itemId.getValue();
+        if (StringUtils.isBlank(id)) {
+            clearSummary();
+            return Mono.empty();
         }
+        return inventoryService.getSummaryByItemId(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Summary not found")));
+    }
+
+    private void showSummary(InventorySummary summary) {
+        itemName.setValue(summary.getItemName());
+        totalTopUp.setValue(String.valueOf(summary.getTotalTopUp()));
+        totalWithdrawal.setValue(String.valueOf(summary.getTotalWithdraw()));
+        totalStock.setValue(String.valueOf(summary.getRemainingStock()));
+        topUpCount.setValue(String.valueOf(summary.getTopUpCount()));
+        withdrawalCount.setValue(String.valueOf(summary.getWithdrawCount()));
+        summaryStale.setVisible(summary.isStale());
+    }
+
+    private void summaryFailed(Throwable error) {
+        Notification.show(error.getMessage(), 3000, Notification.Position.TOP_CENTER)
+                .addThemeVariants(NotificationVariant.LUMO_ERROR);
         clearSummary();
     }
 
     private void clearSummary() {
+        summaryStale.setVisible(false);
         itemName.clear();
         totalTopUp.clear();
         totalWithdrawal.clear();
@@ -291,6 +355,7 @@ public class InventoryManagementView extends VerticalLayout {
                 quantityToAdd = 0;
 
                 paginatedGrid.loadPage(0);
+                loader.load("summary");
             } else {
                 Notification.show("Please fill all required fields", 3000, Notification.Position.TOP_CENTER)
                         .addThemeVariants(NotificationVariant.LUMO_ERROR);
@@ -0,0 +1,108 @@
+package com.sg.obs.inventorymanagement.ui.view;
+
+import com.sg.obs.base.ui.component.GridFilter;
+import com.sg.obs.inventorymanagement.domain.InventoryQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns the inventory grid's filters into an {@link InventoryQuery}. Input that cannot be parsed does not filter.
+ */
+@Slf4j
+final class InventoryQueries {
+
+    static final String ITEM_IDS = "itemIds";
+    static final String TYPE = "type";
+    static final String QUANTITY = "quantity";
+    static final String CREATED = "created";
+
+    private InventoryQueries() {
+    }
+
+    /**
+     * The free-text filter is the item ID from the summary section; the item filter column, when set, replaces it.
+     */
+    static InventoryQuery from(GridFilter filter) {
+        var itemIds = itemIds(filter.column(ITEM_IDS));
+        if (itemIds.isEmpty()) {
+            itemIds = itemIds(filter.text());
+        }
+        var type = filter.column(TYPE).toUpperCase(Locale.ROOT);
+        var quantity = range(filter.column(QUANTITY));
+        var created = dates(filter.column(CREATED));
+        return new InventoryQuery(itemIds, List.of("T", "W").contains(type) ? type : null,
+                created[0], created[1], quantity[0], quantity[1]);
+    }
+
+    private static List<Long> itemIds(String value) {
+        try {
+            return Arrays.stream(value.split(","))
+                    .map(String::trim)
+                    .filter(StringUtils::isNotEmpty)
+                    .map(Long::valueOf)
+                    .toList();
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring item filter '{}'", value);
+            return List.of();
+        }
+    }
+
+    /**
+     * {@code 100}, {@code >100}, {@code >=100}, {@code <100}, {@code <=100} or {@code 10-50}, as [min, max]. An exclusive
+     * bound that has no inclusive one within the int range, such as {@code >2147483647}, is rejected.
+     */
+    private static Integer[] range(String value) {
+        var text = value.replace(" ", "");
+        try {
+            if (text.isEmpty()) {
+                return new Integer[]{null, null};
+            } else if (text.startsWith(">=")) {
+                return new Integer[]{Integer.valueOf(text.substring(2)), null};
+            } else if (text.startsWith(">")) {
+                return new Integer[]{Math.addExact(Integer.parseInt(text.substring(1)), 1), null};
+            } else if (text.startsWith("<=")) {
+                return new Integer[]{null, Integer.valueOf(text.substring(2))};
+            } else if (text.startsWith("<")) {
+                return new Integer[]{null, Math.subtractExact(Integer.parseInt(text.substring(1)), 1)};
+            } else if (text.contains("-")) {
+                var bounds = text.split("-", 2);
+                return new Integer[]{Integer.valueOf(bounds[0]), Integer.valueOf(bounds[1])};
+            }
+            var exact = Integer.valueOf(text);
+            return new Integer[]{exact, exact};
+        } catch (NumberFormatException | ArithmeticException e) {
+            log.debug("Ignoring quantity filter '{}'", value);
+            return new Integer[]{null, null};
+        }
+    }
+
+    /**
+     * {@code from..to}, {@code from..}, {@code ..to} or a single day, as ISO dates and [from, to].
+     */
+    private static LocalDate[] dates(String value) {
+        try {
+            if (value.isBlank()) {
+                return new LocalDate[]{null, null};
+            }
+            if (!value.contains("..")) {
+                var day = LocalDate.parse(value.trim());
+                return new LocalDate[]{day, day};
+            }
+            var bounds = value.split("\\.\\.", 2);
+            return new LocalDate[]{date(bounds[0]), date(bounds[1])};
+        } catch (DateTimeParseException e) {
+            log.debug("Ignoring created filter '{}'", value);
+            return new LocalDate[]{null, null};
+        }
+    }
+
+    private static LocalDate date(String value) {
+        return value.isBlank() ? null : LocalDate.parse(value.trim());
+    }
+}
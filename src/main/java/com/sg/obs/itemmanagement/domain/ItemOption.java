@@ -0,0 +1,11 @@
+package com.sg.obs.itemmanagement.domain;
+
+/**
+ * The id and name of an item, all a picker needs to show and select it.
+ */
+public record ItemOption(Long id, String name) {
+
+    public static ItemOption of(ItemDto item) {
+        return new ItemOption(item.getId(), item.getName());
+    }
+}
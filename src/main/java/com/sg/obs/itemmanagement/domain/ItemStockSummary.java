@@ -0,0 +1,7 @@
+package com.sg.obs.itemmanagement.domain;
+
+/**
+ * Stock movements of an item as recorded in its inventory history.
+ */
+public record ItemStockSummary(long remainingStock, long totalTopUp, long totalWithdraw) {
+}
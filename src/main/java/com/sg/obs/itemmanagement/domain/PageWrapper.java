@@ -21,10 +21,6 @@ public class PageWrapper<T> implements Serializable {
 
     private PageMetadata page;
 
-    private PageWrapper<T> data;
-
-
-
     public PageWrapper(PagedModel<T> pagedModel) {
         this.content = pagedModel.getContent();
         this.page = new PageMetadata();
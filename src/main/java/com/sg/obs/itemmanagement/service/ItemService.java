@@ -1,63 +1,344 @@
 package com.sg.obs.itemmanagement.service;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sg.obs.base.client.ApiEnvelope;
+import com.sg.obs.base.client.BackendEndpoint;
+import com.sg.obs.base.client.BackendResilience;
+import com.sg.obs.base.client.QueryParams;
+import com.sg.obs.base.client.SingleFlight;
+import com.sg.obs.base.client.StalePage;
+import com.sg.obs.base.client.StaleSlice;
+import com.sg.obs.base.config.CacheProperties;
 import com.sg.obs.itemmanagement.domain.ItemDto;
+import com.sg.obs.itemmanagement.domain.ItemOption;
 import com.sg.obs.itemmanagement.domain.PageWrapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 @Service
 public class ItemService {
 
+    private static final ParameterizedTypeReference<ApiEnvelope<PageWrapper<ItemDto>>> ITEM_PAGE =
+            new ParameterizedTypeReference<>() {
+            };
+
     private final WebClient webClient;
 
-    public ItemService(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl("http://localhost:8878/v1/items").build();
+    private final SingleFlight singleFlight;
+
+    private final BackendResilience resilience;
+
+    /**
+     * Item pages shared by every session, counted ({@link Page}) or count-free ({@link Slice}). Reads past
+     * {@code refreshAfterWrite} return the cached page immediately while it is reloaded in the background.
+     */
+    private final AsyncLoadingCache<ItemPageKey, Slice<ItemDto>> pages;
+
+    /**
+     * Approximate item totals per filter for count-free paging.
+     */
+    private final AsyncLoadingCache<String, Long> counts;
+
+    /**
+     * Item picker lookups keyed by normalized filter.
+     */
+    private final AsyncLoadingCache<String, OptionLookup> lookups;
+
+    private final int lookupPrefetch;
+
+    public ItemService(WebClient backendWebClient, SingleFlight singleFlight, BackendResilience resilience,
+                       CacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        this.webClient = backendWebClient;
+        this.singleFlight = singleFlight;
+        this.resilience = resilience;
+        var settings = cacheProperties.items();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(settings.maxSize())
+                .refreshAfterWrite(settings.refreshAfterWrite())
+                .expireAfterWrite(settings.expireAfterWrite())
+                .recordStats()
+                .buildAsync((key, executor) -> freshOnly(key.counted()
+                        ? fetchItems(key.pageable(), key.filter()).<Slice<ItemDto>>map(page -> page)
+                        : fetchSlice(key.pageable(), key.filter()), page -> page).toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, pages.synchronous(), "items.pages");
+
+        var countSettings = cacheProperties.counts();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(countSettings.maxSize())
+                .expireAfterWrite(countSettings.expireAfterWrite())
+                .recordStats()
+                .buildAsync((filter, executor) -> freshOnly(fetchItems(PageRequest.of(0, 1), filter),
+                        Page::getTotalElements).toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, counts.synchronous(), "items.counts");
+
+        var lookupSettings = cacheProperties.lookups();
+        this.lookupPrefetch = lookupSettings.prefetch();
+        this.lookups = Caffeine.newBuilder()
+                .maximumSize(lookupSettings.maxSize())
+                .expireAfterWrite(lookupSettings.expireAfterWrite())
+                .recordStats()
+                .buildAsync((filter, executor) -> fetchLookup(filter).toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, lookups.synchronous(), "items.lookups");
     }
 
+    /**
+     * Cancelling the returned Mono leaves the cached load running, since other sessions may be waiting on it.
+     */
     public Mono<Page<ItemDto>> getItems(Pageable pageable, String currentFilter) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder.path("")
-                        .queryParam("page", pageable.getPageNumber())
-                        .queryParam("size", pageable.getPageSize())
-                        .queryParam("name", Optional.ofNullable(currentFilter).orElse(""))
-                        .build())
+        return cached(() -> pages.get(ItemPageKey.of(pageable, currentFilter, true)))
+                .map(page -> (Page<ItemDto>) page);
+    }
+
+    /**
+     * Like {@link #getItems} but without a total, so the backend can skip its count query. Use
+     * {@link #getApproximateItemCount} to size a pager.
+     */
+    public Mono<Slice<ItemDto>> getItemSlice(Pageable pageable, String currentFilter) {
+        return cached(() -> pages.get(ItemPageKey.of(pageable, currentFilter, false)));
+    }
+
+    /**
+     * Total number of items matching {@code currentFilter}, cached for {@code obs.cache.counts.expire-after-write}.
+     */
+    public Mono<Long> getApproximateItemCount(String currentFilter) {
+        return cached(() -> counts.get(Optional.ofNullable(currentFilter).orElse("")));
+    }
+
+    /**
+     * A load that only got a stale fallback is handed to the readers waiting on it, but was never cached.
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> Mono<V> cached(Supplier<CompletableFuture<V>> load) {
+        return Mono.fromFuture(load, true)
+                .onErrorResume(StaleLoad.class, stale -> Mono.just((V) stale.value));
+    }
+
+    /**
+     * Fails the load when the backend could not answer and {@code fetch} fell back to the last known good result, so
+     * that the stale value is not cached as if it were fresh: a failed refresh keeps the previous entry until it
+     * expires, and a failed first load leaves none, so the next read asks the backend again.
+     */
+    private static <P extends Slice<?>, V> Mono<V> freshOnly(Mono<P> fetch, Function<P, V> toValue) {
+        return fetch.handle((result, sink) -> {
+            var value = toValue.apply(result);
+            if (result instanceof StalePage<?> || result instanceof StaleSlice<?>) {
+                sink.error(new StaleLoad(value));
+            } else {
+                sink.next(value);
+            }
+        });
+    }
+
+    private Mono<Page<ItemDto>> fetchItems(Pageable pageable, String currentFilter) {
+        var params = QueryParams.withSort(Map.of(
+                "page", pageable.getPageNumber(),
+                "size", pageable.getPageSize(),
+                "name", Optional.ofNullable(currentFilter).orElse("")), pageable.getSort());
+        var key = SingleFlight.key("/items", params);
+        Mono<Page<ItemDto>> call = webClient.get()
+                .uri(uriBuilder -> QueryParams.addTo(uriBuilder.path("/items"), params).build())
+                .attributes(BackendEndpoint.ITEMS_LIST::tag)
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<PageWrapper<ItemDto>>() {})
-                .map(PageWrapper::getData)
+                .bodyToMono(ITEM_PAGE)
+                .map(ApiEnvelope::requireData)
                 .map(page -> new PageImpl<>(page.getContent(), pageable, page.getMetadata().getTotalElements())); // safely cast
+        return singleFlight.execute(BackendEndpoint.ITEMS_LIST, key,
+                () -> resilience.read(BackendEndpoint.ITEMS_LIST, key, call, StalePage::of));
+    }
+
+    /**
+     * Asks for one row more than the page size; the extra row only tells whether a next page exists.
+     */
+    private Mono<Slice<ItemDto>> fetchSlice(Pageable pageable, String currentFilter) {
+        var params = QueryParams.withSort(Map.of(
+                "offset", pageable.getOffset(),
+                "limit", pageable.getPageSize() + 1,
+                "count", false,
+                "name", Optional.ofNullable(currentFilter).orElse("")), pageable.getSort());
+        var key = SingleFlight.key("/items", params);
+        Mono<Slice<ItemDto>> call = webClient.get()
+                .uri(uriBuilder -> QueryParams.addTo(uriBuilder.path("/items"), params).build())
+                .attributes(BackendEndpoint.ITEMS_LIST::tag)
+                .retrieve()
+                .bodyToMono(ITEM_PAGE)
+                .map(ApiEnvelope::requireData)
+                .map(page -> toSlice(page.getContent(), pageable));
+        return singleFlight.execute(BackendEndpoint.ITEMS_LIST, key,
+                () -> resilience.read(BackendEndpoint.ITEMS_LIST, key, call, StaleSlice::of));
+    }
+
+    private static <T> Slice<T> toSlice(List<T> rows, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Number of items matching {@code filter}, taken from the total the backend reports with the first lookup page.
+     */
+    public Mono<Integer> countOptions(String filter) {
+        return lookup(filter).map(lookup -> (int) lookup.total());
+    }
+
+    /**
+     * Items matching {@code filter} for a picker. Offsets within the prefetched lookup are served from it; pickers
+     * scrolling past it ask for whole pages, which go through the item page cache.
+     */
+    public Mono<List<ItemOption>> findOptions(String filter, int offset, int limit) {
+        return lookup(filter).flatMap(lookup -> {
+            if (lookup.complete() || offset + limit <= lookup.options().size()) {
+                var options = lookup.options();
+                return Mono.just(options.subList(Math.min(offset, options.size()), Math.min(offset + limit, options.size())));
+            }
+            return getItems(PageRequest.of(offset / limit, limit), normalize(filter))
+                    .map(page -> page.getContent().stream().map(ItemOption::of).toList());
+        });
+    }
+
+    /**
+     * The backend matches {@code name} as a case-insensitive substring, so when a shorter filter's lookup already holds
+     * every match, the matches of a longer filter are a subset of it and can be narrowed locally.
+     */
+    private Mono<OptionLookup> lookup(String filter) {
+        var normalized = normalize(filter);
+        for (int length = normalized.length() - 1; length >= 0; length--) {
+            var cached = lookups.getIfPresent(normalized.substring(0, length));
+            if (cached != null && cached.isDone() && !cached.isCompletedExceptionally() && cached.join().complete()) {
+                return Mono.just(cached.join().narrow(normalized));
+            }
+        }
+        return cached(() -> lookups.get(normalized));
+    }
+
+    private Mono<OptionLookup> fetchLookup(String filter) {
+        return freshOnly(fetchItems(PageRequest.of(0, lookupPrefetch), filter),
+                page -> new OptionLookup(page.getContent().stream().map(ItemOption::of).toList(),
+                        page.getTotalElements()));
+    }
+
+    private static String normalize(String filter) {
+        return Optional.ofNullable(filter).orElse("").trim().toLowerCase(Locale.ROOT);
     }
 
     public Mono<Void> createItem(String name, int price) {
         Map<String, Object> body = Map.of("name", name, "price", price);
-        return webClient.post()
-                .uri("")
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(Void.class);
+        return resilience.write(BackendEndpoint.ITEMS_CREATE, webClient.post()
+                        .uri("/items")
+                        .attributes(BackendEndpoint.ITEMS_CREATE::tag)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(Void.class))
+                .doOnSuccess(it -> invalidateAllPages());
     }
 
     public Mono<Void> updateItem(Long id, String name, double price) {
         Map<String, Object> body = Map.of("name", name, "price", price, "id", id);
-        return webClient.put()
-                .uri("", id)
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(Void.class);
+        return resilience.write(BackendEndpoint.ITEMS_UPDATE, webClient.put()
+                        .uri("/items")
+                        .attributes(BackendEndpoint.ITEMS_UPDATE::tag)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(Void.class))
+                .doOnSuccess(it -> invalidatePagesAffectedBy(id));
     }
 
     public Mono<Void> deleteItem(Long id) {
-        return webClient.delete()
-                .uri("/{id}", id)
-                .retrieve()
-                .bodyToMono(Void.class);
+        return resilience.write(BackendEndpoint.ITEMS_DELETE, webClient.delete()
+                        .uri("/items/{id}", id)
+                        .attributes(BackendEndpoint.ITEMS_DELETE::tag)
+                        .retrieve()
+                        .bodyToMono(Void.class))
+                .doOnSuccess(it -> invalidateAllPages());
+    }
+
+    /**
+     * Inserts and deletes shift the offsets of every page after them, so nothing cached can be trusted anymore.
+     */
+    private void invalidateAllPages() {
+        singleFlight.forget("/items");
+        pages.synchronous().invalidateAll();
+        lookups.synchronous().invalidateAll();
+        counts.synchronous().invalidateAll();
+    }
+
+    /**
+     * An update only moves the item between pages when the page is filtered or sorted (its name or price may no longer
+     * match), otherwise only the pages that contain it are stale. Pages still loading are dropped as well since they
+     * may carry the old values. Every lookup is dropped since a rename can change which filters match.
+     */
+    private void invalidatePagesAffectedBy(Long id) {
+        singleFlight.forget("/items");
+        pages.asMap().entrySet().removeIf(entry -> entry.getKey().isFilteredOrSorted()
+                || !entry.getValue().isDone()
+                || containsItem(entry.getValue(), id));
+        lookups.synchronous().invalidateAll();
+    }
+
+    private static boolean containsItem(CompletableFuture<Slice<ItemDto>> page, Long id) {
+        return !page.isCompletedExceptionally()
+                && page.join().getContent().stream().anyMatch(item -> id.equals(item.getId()));
+    }
+
+    /**
+     * Carries a stale fallback past the cache to the readers of a failed load.
+     */
+    private static final class StaleLoad extends RuntimeException {
+
+        private final transient Object value;
+
+        StaleLoad(Object value) {
+            super("Backend unavailable, serving the last known good result", null, false, false);
+            this.value = value;
+        }
+    }
+
+    private record OptionLookup(List<ItemOption> options, long total) {
+
+        boolean complete() {
+            return options.size() >= total;
+        }
+
+        OptionLookup narrow(String filter) {
+            var matches = options.stream()
+                    .filter(option -> option.name().toLowerCase(Locale.ROOT).contains(filter))
+                    .toList();
+            return new OptionLookup(matches, matches.size());
+        }
+    }
+
+    private record ItemPageKey(int page, int size, Sort sort, String filter, boolean counted) {
+
+        static ItemPageKey of(Pageable pageable, String filter, boolean counted) {
+            return new ItemPageKey(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort(),
+                    Optional.ofNullable(filter).orElse(""), counted);
+        }
+
+        Pageable pageable() {
+            return PageRequest.of(page, size, sort);
+        }
+
+        boolean isFilteredOrSorted() {
+            return !filter.isBlank() || sort.isSorted();
+        }
     }
 }
@@ -0,0 +1,19 @@
+package com.sg.obs.itemmanagement.service;
+
+import com.sg.obs.itemmanagement.domain.ItemStockSummary;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Stock summaries of items, provided by inventory management (which depends on items, not the other way around).
+ */
+public interface ItemStockSummaries {
+
+    /**
+     * Summaries of {@code itemIds} keyed by item ID, fetched together rather than one call per item. Items without a
+     * summary are left out.
+     */
+    Mono<Map<Long, ItemStockSummary>> getStockSummaries(Collection<Long> itemIds);
+}
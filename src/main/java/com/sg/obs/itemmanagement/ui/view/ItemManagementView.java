@@ -1,32 +1,43 @@
 package com.sg.obs.itemmanagement.ui.view;
 
 
+import com.sg.obs.base.config.BackendClientProperties;
 import com.sg.obs.base.ui.component.ConfirmDeleteDialog;
 import com.sg.obs.base.ui.component.EditDialog;
 import com.sg.obs.base.ui.component.PaginatedGrid;
+import com.sg.obs.base.utils.CellFormats;
 import com.sg.obs.base.utils.DatetimeUtils;
 import com.sg.obs.itemmanagement.domain.ItemDto;
+import com.sg.obs.itemmanagement.domain.ItemStockSummary;
 import com.sg.obs.itemmanagement.service.ItemService;
+import com.sg.obs.itemmanagement.service.ItemStockSummaries;
 import com.sg.obs.security.AppRoles;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.notification.NotificationVariant;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.NumberField;
 import com.vaadin.flow.component.textfield.TextField;
-import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.Menu;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 import io.micrometer.common.util.StringUtils;
 import jakarta.annotation.security.RolesAllowed;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToLongFunction;
 
 @Route("items")
 @PageTitle("Item Management")
@@ -43,16 +54,22 @@ public class ItemManagementView extends VerticalLayout {
 
     private PaginatedGrid<ItemDto> paginatedGrid;
 
-    public ItemManagementView(ItemService itemService) {
+    private final transient ItemStockSummaries stockSummaries;
+    private final Checkbox showStockDetails = new Checkbox("Stock details");
+    private final List<Grid.Column<ItemDto>> stockDetailColumns = new ArrayList<>();
+    private final Map<Long, ItemStockSummary> pageStockSummaries = new HashMap<>();
+    private transient Disposable stockSummaryLoad;
+
+    public ItemManagementView(ItemService itemService, ItemStockSummaries stockSummaries,
+                              BackendClientProperties clientProperties) {
         this.itemService = itemService;
+        this.stockSummaries = stockSummaries;
 
         nameField.setPlaceholder("Item name");
         priceField.setPlaceholder(PRICE_FIELD_LABEL);
 
         TextField filterField = new TextField("Filter by Name or ID");
         filterField.setPlaceholder("Filter by Name or ID...");
-        filterField.setValueChangeMode(ValueChangeMode.EAGER);
-        filterField.addValueChangeListener(e -> paginatedGrid.setFilter(e.getValue()));
 
         Button addButton = new Button("Add Item");
         addButton.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
@@ -63,22 +80,72 @@ public class ItemManagementView extends VerticalLayout {
 
         paginatedGrid = new PaginatedGrid<>(
                 ItemDto.class,
-                (pageable, filter) -> Objects.requireNonNull(itemService.getItems(pageable, filter).block())
+                (pageable, filter) -> itemService.getItems(pageable, filter.text())
         );
+        paginatedGrid.setRowId(ItemDto::getId);
+        if (clientProperties.paging().countFree()) {
+            paginatedGrid.setCountFreePaging((pageable, filter) -> itemService.getItemSlice(pageable, filter.text()),
+                    filter -> itemService.getApproximateItemCount(filter.text()));
+        }
 
-        paginatedGrid.addColumn(ItemDto::getId, "ID").setSortable(true);
-        paginatedGrid.addColumn(ItemDto::getName, "Name").setSortable(true);
-        paginatedGrid.addColumn(ItemDto::getPrice, PRICE_FIELD_LABEL).setSortable(true);
-        paginatedGrid.addColumn(item -> DatetimeUtils.formatDateShort(item.getCreatedDate()), "Created").setSortable(true).setAutoWidth(true);
-        paginatedGrid.addColumn(item -> DatetimeUtils.formatDateShort(item.getUpdatedDate()), "Updated").setSortable(true).setAutoWidth(true);
-        paginatedGrid.addColumn(ItemDto::getStock, "Stock").setSortable(true);
+        paginatedGrid.bindFilter(filterField);
+
+        paginatedGrid.addColumn(ItemDto::getId, "ID", "id");
+        paginatedGrid.addColumn(ItemDto::getName, "Name", "name");
+        var locale = getLocale();
+        paginatedGrid.addDisplayColumn(item -> CellFormats.number(item.getPrice(), "#,##0.00", locale), PRICE_FIELD_LABEL, "price");
+        paginatedGrid.addDisplayColumn(item -> DatetimeUtils.formatDateShort(item.getCreatedDate(), locale), "Created", "createdDate");
+        paginatedGrid.addDisplayColumn(item -> DatetimeUtils.formatDateShort(item.getUpdatedDate(), locale), "Updated", "updatedDate");
+        paginatedGrid.addDisplayColumn(item -> CellFormats.number(item.getStock(), "#,##0", locale), "Stock", "remainingStock");
+        stockDetailColumns.add(paginatedGrid.addColumn(
+                item -> stockDetail(item, ItemStockSummary::totalTopUp, locale), "Top-ups"));
+        stockDetailColumns.add(paginatedGrid.addColumn(
+                item -> stockDetail(item, ItemStockSummary::totalWithdraw, locale), "Withdrawals"));
+        stockDetailColumns.forEach(column -> column.setVisible(false));
+
+        // One batched summary call per page, and only while the columns are shown
+        showStockDetails.addValueChangeListener(e -> {
+            stockDetailColumns.forEach(column -> column.setVisible(e.getValue()));
+            loadStockSummaries(List.copyOf(paginatedGrid.getDataProvider().getItems()));
+        });
+        paginatedGrid.addRowsLoadedListener(this::loadStockSummaries);
+        addDetachListener(e -> {
+            if (stockSummaryLoad != null) {
+                stockSummaryLoad.dispose();
+            }
+        });
 
         paginatedGrid.addActionColumn(this::openEditDialog, this::confirmDelete);
 
-        add(filterField, formLayout, paginatedGrid);
+        HorizontalLayout filterLayout = new HorizontalLayout(filterField, showStockDetails);
+        filterLayout.setAlignItems(Alignment.BASELINE);
+
+        add(filterLayout, formLayout, paginatedGrid);
         setSizeFull();
 
-        UI.getCurrent().access(() -> paginatedGrid.loadPage(0));
+        paginatedGrid.loadPage(0);
+    }
+
+    private void loadStockSummaries(List<ItemDto> rows) {
+        if (stockSummaryLoad != null) {
+            stockSummaryLoad.dispose();
+        }
+        if (!showStockDetails.getValue() || rows.isEmpty()) {
+            return;
+        }
+        var ui = UI.getCurrent();
+        stockSummaryLoad = stockSummaries.getStockSummaries(rows.stream().map(ItemDto::getId).toList())
+                .subscribe(found -> ui.access(() -> {
+                            pageStockSummaries.clear();
+                            pageStockSummaries.putAll(found);
+                            rows.forEach(paginatedGrid.getDataProvider()::refreshItem);
+                        }),
+                        error -> log.warn("Failed to load stock summaries", error));
+    }
+
+    private String stockDetail(ItemDto item, ToLongFunction<ItemStockSummary> value, Locale locale) {
+        var summary = pageStockSummaries.get(item.getId());
+        return summary == null ? "" : CellFormats.number(value.applyAsLong(summary), "#,##0", locale);
     }
 
     private void addItem() {
@@ -0,0 +1,263 @@
+package com.sg.obs.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sg.obs.base.domain.CursorDirection;
+import com.sg.obs.inventorymanagement.domain.InventoryDetails;
+import com.sg.obs.inventorymanagement.domain.InventoryQuery;
+import com.sg.obs.inventorymanagement.domain.InventoryRequest;
+import com.sg.obs.itemmanagement.domain.PageWrapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Serves the backend API on {@code obs.standin.port}, with injectable latency and failures. It runs on its own event
+ * loops so its work does not compete with the application's backend client.
+ */
+@Slf4j
+@Component
+@Profile("standin")
+class StandInBackend {
+
+    private final StandInProperties properties;
+    private final ObjectMapper mapper;
+    private final StandInData data;
+    private final AtomicReference<Faults> faults;
+
+    private LoopResources loops;
+    private DisposableServer server;
+
+    StandInBackend(StandInProperties properties, ObjectMapper mapper) {
+        this.properties = properties;
+        this.mapper = mapper;
+        this.data = new StandInData(properties);
+        this.faults = new AtomicReference<>(
+                new Faults(properties.latency(), properties.jitter(), properties.failureRate()));
+    }
+
+    @PostConstruct
+    void start() {
+        loops = LoopResources.create("standin", Math.max(2, Runtime.getRuntime().availableProcessors() / 2), true);
+        server = HttpServer.create()
+                .port(properties.port())
+                .runOn(loops)
+                .route(routes -> routes
+                        .get("/v1/items", (req, res) -> reply(res, Mono.defer(() -> {
+                            var range = range(req);
+                            return priced(data.items(query(req, "name").orElse(""), range, sort(req)), range);
+                        })))
+                        .post("/v1/items", (req, res) -> reply(res, body(req).map(json ->
+                                data.createItem(json.path("name").asText(), json.path("price").asDouble()))))
+                        .put("/v1/items", (req, res) -> reply(res, body(req).map(json -> data.updateItem(
+                                json.path("id").asLong(), json.path("name").asText(), json.path("price").asDouble()))))
+                        .delete("/v1/items/{id}", (req, res) -> reply(res, Mono.fromRunnable(
+                                () -> data.deleteItem(Long.parseLong(req.param("id"))))))
+                        .get("/v1/inventories", (req, res) -> reply(res, inventories(req, false)))
+                        .get("/v1/inventories/items/{itemId}", (req, res) -> reply(res, inventories(req, true)))
+                        .get("/v1/inventories/summaries", (req, res) -> reply(res, Mono.fromCallable(
+                                () -> data.summaries(longQueries(req, "itemId")))))
+                        .get("/v1/inventories/items/{itemId}/summary", (req, res) -> reply(res, Mono.fromCallable(
+                                () -> data.summary(itemId(req)))))
+                        .post("/v1/inventories", (req, res) -> reply(res, body(req).map(json ->
+                                data.saveInventory(mapper.convertValue(json, InventoryRequest.class)))))
+                        .get("/_standin/faults", (req, res) -> send(res, 200, faults.get()))
+                        .put("/_standin/faults", (req, res) -> send(res, 200, faults.updateAndGet(current -> current.with(
+                                query(req, "latency"), query(req, "jitter"), query(req, "failureRate"))))))
+                .bindNow();
+        log.warn("Stand-in backend listening on port {} with {}", server.port(), faults.get());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+        if (loops != null) {
+            loops.dispose();
+        }
+    }
+
+    /**
+     * Applies the configured latency and failure rate, then wraps the result in the backend's {@code data} envelope.
+     */
+    private Publisher<Void> reply(HttpServerResponse response, Mono<?> result) {
+        var current = faults.get();
+        return Mono.delay(current.nextLatency())
+                .then(current.shouldFail()
+                        ? send(response, 503, new ApiError("503", "Injected failure"))
+                        : result.map(it -> Map.of("data", it))
+                                .flatMap(it -> send(response, 200, it))
+                                .switchIfEmpty(Mono.defer(() -> send(response, 200, Map.of())))
+                                .onErrorResume(StandInException.class, e -> send(response, e.getStatus(),
+                                        new ApiError(String.valueOf(e.getStatus()), e.getMessage())))
+                                .onErrorResume(IllegalArgumentException.class, e -> send(response, 400,
+                                        new ApiError("400", e.getMessage()))));
+    }
+
+    /**
+     * Keyset page when {@code direction} is given, offset page otherwise.
+     */
+    private Mono<?> inventories(HttpServerRequest request, boolean byItem) {
+        return Mono.<Object>defer(() -> {
+            var query = inventoryQuery(request, byItem);
+            int size = intQuery(request, "size", 20);
+            var direction = query(request, "direction");
+            if (direction.isPresent()) {
+                var cursorDirection = CursorDirection.valueOf(direction.get().toUpperCase(Locale.ROOT));
+                return Mono.just(data.inventories(query, cursorDirection, cursor(request, cursorDirection), size));
+            }
+            var range = range(request);
+            return priced(data.inventories(query, range, sort(request)), range);
+        });
+    }
+
+    /**
+     * Filters of an inventory list request: the path's item, or repeated {@code itemId} parameters, plus
+     * {@code type}, {@code createdFrom}/{@code createdTo} and {@code minQuantity}/{@code maxQuantity}.
+     */
+    private static InventoryQuery inventoryQuery(HttpServerRequest request, boolean byItem) {
+        var itemIds = byItem ? List.of(itemId(request)) : longQueries(request, "itemId");
+        return new InventoryQuery(itemIds,
+                query(request, "type").orElse(null),
+                query(request, "createdFrom").map(LocalDate::parse).orElse(null),
+                query(request, "createdTo").map(LocalDate::parse).orElse(null),
+                query(request, "minQuantity").map(Integer::valueOf).orElse(null),
+                query(request, "maxQuantity").map(Integer::valueOf).orElse(null));
+    }
+
+    /**
+     * Delays an offset page by what a database would spend on it: {@code offsetScanCost} per row it reads only to
+     * skip, and {@code countScanCost} per row it counts for the total.
+     */
+    private <T> Mono<PageWrapper<T>> priced(PageWrapper<T> page, StandInData.Range range) {
+        var cost = properties.offsetScanCost().multipliedBy(range.offset());
+        if (range.count()) {
+            cost = cost.plus(properties.countScanCost().multipliedBy(page.getMetadata().getTotalElements()));
+        }
+        return Mono.just(page).delayElement(cost);
+    }
+
+    private static StandInData.Range range(HttpServerRequest request) {
+        boolean count = query(request, "count").map(Boolean::parseBoolean).orElse(true);
+        if (query(request, "limit").isPresent()) {
+            return new StandInData.Range(query(request, "offset").map(Long::parseLong).orElse(0L),
+                    intQuery(request, "limit", 20), count);
+        }
+        int size = intQuery(request, "size", 20);
+        return new StandInData.Range((long) intQuery(request, "page", 0) * size, size, count);
+    }
+
+    /**
+     * Spring Data style {@code sort=property,asc|desc} parameters, ascending when no direction is given.
+     */
+    private static Sort sort(HttpServerRequest request) {
+        var values = new QueryStringDecoder(request.uri()).parameters().getOrDefault("sort", List.of());
+        return Sort.by(values.stream().map(value -> {
+            var parts = value.split(",");
+            var direction = parts.length > 1 ? Sort.Direction.fromString(parts[1]) : Sort.Direction.ASC;
+            return new Sort.Order(direction, parts[0]);
+        }).toList());
+    }
+
+    private static InventoryDetails cursor(HttpServerRequest request, CursorDirection direction) {
+        if (direction == CursorDirection.FIRST || direction == CursorDirection.LAST) {
+            return null;
+        }
+        var createdDate = query(request, "cursorDate").map(LocalDateTime::parse)
+                .orElseThrow(() -> new IllegalArgumentException("cursorDate is required for " + direction));
+        var id = query(request, "cursorId").map(Long::parseLong)
+                .orElseThrow(() -> new IllegalArgumentException("cursorId is required for " + direction));
+        return new InventoryDetails(id, null, null, null, null, createdDate, null);
+    }
+
+    private Mono<Void> send(HttpServerResponse response, int status, Object body) {
+        return Mono.fromCallable(() -> mapper.writeValueAsBytes(body))
+                .flatMap(bytes -> response.status(HttpResponseStatus.valueOf(status))
+                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .sendByteArray(Mono.just(bytes))
+                        .then());
+    }
+
+    private Mono<JsonNode> body(HttpServerRequest request) {
+        return request.receive().aggregate().asString().map(this::readTree);
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return mapper.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Malformed JSON body", e);
+        }
+    }
+
+    private static Long itemId(HttpServerRequest request) {
+        try {
+            return Long.parseLong(request.param("itemId"));
+        } catch (NumberFormatException e) {
+            throw new StandInException(404, "Item not found: " + request.param("itemId"));
+        }
+    }
+
+    private static Optional<String> query(HttpServerRequest request, String name) {
+        return Optional.ofNullable(new QueryStringDecoder(request.uri()).parameters().get(name))
+                .map(List::getFirst);
+    }
+
+    private static List<Long> longQueries(HttpServerRequest request, String name) {
+        return new QueryStringDecoder(request.uri()).parameters().getOrDefault(name, List.of()).stream()
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    private static int intQuery(HttpServerRequest request, String name, int defaultValue) {
+        return query(request, name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    record ApiError(String code, String message) {}
+
+    record Faults(Duration latency, Duration jitter, double failureRate) {
+
+        Duration nextLatency() {
+            long jitterMillis = jitter.toMillis();
+            return jitterMillis <= 0 ? latency
+                    : latency.plusMillis(ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1))
+                    .abs();
+        }
+
+        boolean shouldFail() {
+            return failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate;
+        }
+
+        Faults with(Optional<String> latency, Optional<String> jitter, Optional<String> failureRate) {
+            Function<String, Duration> duration = DurationStyle::detectAndParse;
+            return new Faults(latency.map(duration).orElse(this.latency), jitter.map(duration).orElse(this.jitter),
+                    failureRate.map(Double::parseDouble).orElse(this.failureRate));
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.sg.obs.standin;
+
+import com.sg.obs.base.domain.CursorDirection;
+import com.sg.obs.base.domain.CursorPage;
+import com.sg.obs.inventorymanagement.domain.InventoryDetails;
+import com.sg.obs.inventorymanagement.domain.InventoryQuery;
+import com.sg.obs.inventorymanagement.domain.InventoryRequest;
+import com.sg.obs.inventorymanagement.domain.InventorySummary;
+import com.sg.obs.itemmanagement.domain.ItemDto;
+import com.sg.obs.itemmanagement.domain.PageWrapper;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Generated, mutable data served by the stand-in backend, indexed newest first by {@code (createdDate, id)} so keyset
+ * pages are a seek while offset pages walk past every skipped row like a database would.
+ * <p>
+ * The generated inventory history is never stored: row {@code id} belongs to item {@code (id - 1) % items + 1} and was
+ * created {@code id - 1} seconds after the history starts, so any row, and any run of rows in order, is computed on
+ * demand. Tens of millions of rows cost no memory; only items and the inventories saved while running are kept, and
+ * those are always newer than the generated ones.
+ */
+class StandInData {
+
+    private static final Comparator<InventoryDetails> NEWEST_FIRST = Comparator
+            .comparing(InventoryDetails::getCreatedDate)
+            .thenComparing(InventoryDetails::getId)
+            .reversed();
+
+    /**
+     * Sorting by anything but the index means materializing the rows; past this, a request is refused as a backend
+     * would refuse a sort on an unindexed column of a huge table.
+     */
+    private static final long MAX_SORTED_ROWS = 1_000_000;
+
+    private final int generatedItems;
+    private final int generatedPerItem;
+    private final long generatedInventories;
+    private final LocalDateTime historyStart;
+
+    private final NavigableMap<Long, ItemDto> items = new ConcurrentSkipListMap<>();
+    private final NavigableSet<InventoryDetails> saved = new ConcurrentSkipListSet<>(NEWEST_FIRST);
+    private final Map<Long, NavigableSet<InventoryDetails>> savedByItem = new ConcurrentHashMap<>();
+    private final AtomicLong itemIds = new AtomicLong();
+    private final AtomicLong inventoryIds;
+
+    StandInData(StandInProperties properties) {
+        this.generatedItems = properties.items();
+        this.generatedPerItem = properties.inventoriesPerItem();
+        this.generatedInventories = (long) generatedItems * generatedPerItem;
+        this.inventoryIds = new AtomicLong(generatedInventories);
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        this.historyStart = now.minusSeconds(generatedInventories + 1);
+        for (int i = 0; i < generatedItems; i++) {
+            long stock = 0;
+            for (int j = 0; j < generatedPerItem; j++) {
+                stock += isWithdrawal(j) ? -quantity(i, j) : quantity(i, j);
+            }
+            var item = new ItemDto(itemIds.incrementAndGet(), "Item " + (i + 1), 1 + (i * 37) % 500, (int) stock,
+                    historyStart, historyStart);
+            items.put(item.getId(), item);
+        }
+    }
+
+    private static final Map<String, Comparator<ItemDto>> ITEM_SORTS = Map.of(
+            "id", Comparator.comparing(ItemDto::getId),
+            "name", Comparator.comparing(ItemDto::getName, String.CASE_INSENSITIVE_ORDER),
+            "price", Comparator.comparingDouble(ItemDto::getPrice),
+            "remainingStock", Comparator.comparingInt(ItemDto::getStock),
+            "createdDate", Comparator.comparing(ItemDto::getCreatedDate),
+            "updatedDate", Comparator.comparing(ItemDto::getUpdatedDate));
+
+    private static final Map<String, Comparator<InventoryDetails>> INVENTORY_SORTS = Map.of(
+            "id", Comparator.comparing(InventoryDetails::getId),
+            "itemName", Comparator.comparing(InventoryDetails::getItemName, String.CASE_INSENSITIVE_ORDER),
+            "quantity", Comparator.comparing(InventoryDetails::getQuantity),
+            "type", Comparator.comparing(InventoryDetails::getType),
+            "createdDate", Comparator.comparing(InventoryDetails::getCreatedDate),
+            "updatedDate", Comparator.comparing(InventoryDetails::getUpdatedDate));
+
+    PageWrapper<ItemDto> items(String filter, Range range, Sort sort) {
+        var needle = filter == null ? "" : filter.trim().toLowerCase(Locale.ROOT);
+        Predicate<ItemDto> matches = needle.isEmpty() ? it -> true
+                : it -> it.getName().toLowerCase(Locale.ROOT).contains(needle) || it.getId().toString().equals(needle);
+        Stream<ItemDto> rows = items.values().stream().filter(matches);
+        if (sort.isSorted()) {
+            rows = rows.sorted(comparator(sort, ITEM_SORTS));
+        }
+        var content = rows.skip(range.offset()).limit(range.limit()).toList();
+        long total = !range.count() ? 0
+                : needle.isEmpty() ? items.size() : items.values().stream().filter(matches).count();
+        return page(content, total, range);
+    }
+
+    ItemDto createItem(String name, double price) {
+        var now = LocalDateTime.now();
+        var item = new ItemDto(itemIds.incrementAndGet(), name, price, 0, now, now);
+        items.put(item.getId(), item);
+        return item;
+    }
+
+    ItemDto updateItem(long id, String name, double price) {
+        var item = requireItem(id);
+        item.setName(name);
+        item.setPrice(price);
+        item.setUpdatedDate(LocalDateTime.now());
+        return item;
+    }
+
+    void deleteItem(long id) {
+        requireItem(id);
+        items.remove(id);
+    }
+
+    PageWrapper<InventoryDetails> inventories(InventoryQuery query, Range range, Sort sort) {
+        var itemId = query.singleItemId().orElse(null);
+        var matches = matches(query);
+        Stream<InventoryDetails> rows = older(itemId, null).filter(matches);
+        if (sort.isSorted()) {
+            if (historySize(itemId) > MAX_SORTED_ROWS) {
+                throw new StandInException(400, "Sorting more than " + MAX_SORTED_ROWS + " rows is not supported");
+            }
+            rows = rows.sorted(comparator(sort, INVENTORY_SORTS));
+        }
+        var content = rows.skip(range.offset()).limit(range.limit()).toList();
+        long total = !range.count() ? 0
+                : isUnfiltered(query) ? historySize(itemId) : older(itemId, null).filter(matches).count();
+        return page(content, total, range);
+    }
+
+    /**
+     * One keyset page of the history, newest first. {@code cursor} only needs its created date and id.
+     */
+    CursorPage<InventoryDetails> inventories(InventoryQuery query, CursorDirection direction, InventoryDetails cursor,
+                                             int size) {
+        var itemId = query.singleItemId().orElse(null);
+        var matches = matches(query);
+        List<InventoryDetails> content = switch (direction) {
+            case FIRST -> older(itemId, null).filter(matches).limit(size).toList();
+            case NEXT -> older(itemId, cursor).filter(matches).limit(size).toList();
+            case PREVIOUS -> reversed(newer(itemId, cursor).filter(matches).limit(size).toList());
+            case LAST -> reversed(newer(itemId, null).filter(matches).limit(size).toList());
+        };
+        if (content.isEmpty()) {
+            return new CursorPage<>(content, false, false, false);
+        }
+        return new CursorPage<>(content,
+                newer(itemId, content.getFirst()).anyMatch(matches),
+                older(itemId, content.getLast()).anyMatch(matches), false);
+    }
+
+    InventoryDetails saveInventory(InventoryRequest request) {
+        var item = requireItem(request.itemId());
+        if (request.quantity() <= 0 || !List.of("T", "W").contains(request.type())) {
+            throw new StandInException(400, "Invalid inventory request");
+        }
+        if ("W".equals(request.type()) && request.quantity() > item.getStock()) {
+            throw new StandInException(400, "Insufficient stock for item " + item.getId());
+        }
+        return addInventory(item, request.quantity(), request.type(), LocalDateTime.now());
+    }
+
+    InventorySummary summary(long itemId) {
+        var item = requireItem(itemId);
+        var summary = new InventorySummary();
+        summary.setItemId(item.getId());
+        summary.setItemName(item.getName());
+        older(item.getId(), null).forEach(it -> {
+            if ("T".equals(it.getType())) {
+                summary.setTotalTopUp(summary.getTotalTopUp() + it.getQuantity());
+                summary.setTopUpCount(summary.getTopUpCount() + 1);
+            } else {
+                summary.setTotalWithdraw(summary.getTotalWithdraw() + it.getQuantity());
+                summary.setWithdrawCount(summary.getWithdrawCount() + 1);
+            }
+        });
+        summary.setRemainingStock(summary.getTotalTopUp() - summary.getTotalWithdraw());
+        return summary;
+    }
+
+    /**
+     * Summaries of the known items among {@code itemIds}; unknown ones are left out.
+     */
+    List<InventorySummary> summaries(List<Long> itemIds) {
+        return itemIds.stream().distinct().filter(items::containsKey).map(this::summary).toList();
+    }
+
+    /**
+     * Timestamps are kept to the second since that is all the API returns, so a cursor built from a response row
+     * compares equal to the row it came from.
+     */
+    private synchronized InventoryDetails addInventory(ItemDto item, int quantity, String type, LocalDateTime at) {
+        var createdDate = at.truncatedTo(ChronoUnit.SECONDS);
+        var inventory = new InventoryDetails(inventoryIds.incrementAndGet(), item.getId(), item.getName(), quantity,
+                type, createdDate, createdDate);
+        saved.add(inventory);
+        savedByItem.computeIfAbsent(item.getId(), id -> new ConcurrentSkipListSet<>(NEWEST_FIRST)).add(inventory);
+        item.setStock(item.getStock() + ("T".equals(type) ? quantity : -quantity));
+        return inventory;
+    }
+
+    /**
+     * History of one item ({@code null} for all) older than {@code cursor} ({@code null} for all of it), newest first:
+     * the saved rows, then the generated ones.
+     */
+    private Stream<InventoryDetails> older(Long itemId, InventoryDetails cursor) {
+        var savedRows = savedHistory(itemId);
+        if (cursor == null) {
+            return Stream.concat(savedRows.stream(), generated(itemId, Long.MAX_VALUE, false));
+        }
+        if (cursor.getId() > generatedInventories) {
+            return Stream.concat(savedRows.tailSet(cursor, false).stream(), generated(itemId, Long.MAX_VALUE, false));
+        }
+        return generated(itemId, cursor.getId(), false);
+    }
+
+    /**
+     * History of one item ({@code null} for all) newer than {@code cursor} ({@code null} for all of it), oldest first.
+     */
+    private Stream<InventoryDetails> newer(Long itemId, InventoryDetails cursor) {
+        var savedRows = savedHistory(itemId).descendingSet();
+        if (cursor == null) {
+            return Stream.concat(generated(itemId, 0, true), savedRows.stream());
+        }
+        if (cursor.getId() > generatedInventories) {
+            return savedRows.tailSet(cursor, false).stream();
+        }
+        return Stream.concat(generated(itemId, cursor.getId(), true), savedRows.stream());
+    }
+
+    /**
+     * Generated rows of one item ({@code null} for all) with an id below ({@code ascending = false}, newest first) or
+     * above ({@code ascending = true}, oldest first) {@code bound}.
+     */
+    private Stream<InventoryDetails> generated(Long itemId, long bound, boolean ascending) {
+        if (itemId != null && (itemId < 1 || itemId > generatedItems) || generatedInventories == 0) {
+            return Stream.empty();
+        }
+        long first = itemId == null ? 1 : itemId;
+        long step = itemId == null ? 1 : generatedItems;
+        long last = first + (itemId == null ? generatedInventories - 1 : (generatedPerItem - 1L) * step);
+        LongStream ids;
+        if (ascending) {
+            long start = bound < first ? first : first + ((bound - first) / step + 1) * step;
+            ids = LongStream.iterate(start, id -> id <= last, id -> id + step);
+        } else {
+            long start = bound > last ? last
+                    : bound - 1 < first ? first - step
+                    : first + ((bound - 1 - first) / step) * step;
+            ids = LongStream.iterate(start, id -> id >= first, id -> id - step);
+        }
+        return ids.mapToObj(this::generatedRow);
+    }
+
+    private InventoryDetails generatedRow(long id) {
+        long index = id - 1;
+        int item = (int) (index % generatedItems);
+        int sequence = (int) (index / generatedItems);
+        long itemId = item + 1L;
+        var current = items.get(itemId);
+        var createdDate = historyStart.plusSeconds(index);
+        return new InventoryDetails(id, itemId, current == null ? "Item " + itemId : current.getName(),
+                quantity(item, sequence), isWithdrawal(sequence) ? "W" : "T", createdDate, createdDate);
+    }
+
+    /**
+     * Every third row withdraws what the row two before it topped up, so stock never goes negative.
+     */
+    private static boolean isWithdrawal(int sequence) {
+        return sequence % 3 == 2;
+    }
+
+    private static int quantity(int item, int sequence) {
+        int topUp = isWithdrawal(sequence) ? sequence - 2 : sequence;
+        return 1 + (item + topUp * 7) % 50;
+    }
+
+    private long historySize(Long itemId) {
+        if (itemId == null) {
+            return generatedInventories + saved.size();
+        }
+        return (itemId >= 1 && itemId <= generatedItems ? generatedPerItem : 0) + savedHistory(itemId).size();
+    }
+
+    private NavigableSet<InventoryDetails> savedHistory(Long itemId) {
+        return itemId == null ? saved : savedByItem.getOrDefault(itemId, Collections.emptyNavigableSet());
+    }
+
+    private static boolean isUnfiltered(InventoryQuery query) {
+        return query.itemIds().size() <= 1 && query.type() == null && query.createdFrom() == null
+                && query.createdTo() == null && query.minQuantity() == null && query.maxQuantity() == null;
+    }
+
+    private static Predicate<InventoryDetails> matches(InventoryQuery query) {
+        Predicate<InventoryDetails> matches = it -> true;
+        if (query.itemIds().size() > 1) {
+            matches = matches.and(it -> query.itemIds().contains(it.getItemId()));
+        }
+        if (query.type() != null) {
+            matches = matches.and(it -> query.type().equals(it.getType()));
+        }
+        if (query.createdFrom() != null) {
+            matches = matches.and(it -> !it.getCreatedDate().isBefore(query.createdFrom().atStartOfDay()));
+        }
+        if (query.createdTo() != null) {
+            matches = matches.and(it -> it.getCreatedDate().isBefore(query.createdTo().plusDays(1).atStartOfDay()));
+        }
+        if (query.minQuantity() != null) {
+            matches = matches.and(it -> it.getQuantity() >= query.minQuantity());
+        }
+        if (query.maxQuantity() != null) {
+            matches = matches.and(it -> it.getQuantity() <= query.maxQuantity());
+        }
+        return matches;
+    }
+
+    /**
+     * Comparator for {@code sort}, keeping the natural order for ties; unknown properties are rejected like a backend
+     * rejects sorting on a field it does not expose.
+     */
+    private static <T> Comparator<T> comparator(Sort sort, Map<String, Comparator<T>> sortable) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (var order : sort) {
+            var byProperty = sortable.get(order.getProperty());
+            if (byProperty == null) {
+                throw new IllegalArgumentException("Cannot sort by " + order.getProperty());
+            }
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+
+    private static List<InventoryDetails> reversed(List<InventoryDetails> rows) {
+        var newestFirst = new ArrayList<>(rows);
+        Collections.reverse(newestFirst);
+        return newestFirst;
+    }
+
+    private ItemDto requireItem(Long id) {
+        var item = id == null ? null : items.get(id);
+        if (item == null) {
+            throw new StandInException(404, "Item not found: " + id);
+        }
+        return item;
+    }
+
+    /**
+     * Totals are reported as -1 when the request asked to skip the count.
+     */
+    private static <T> PageWrapper<T> page(List<T> content, long total, Range range) {
+        var metadata = new PageWrapper.PageMetadata();
+        metadata.setNumber(range.limit() == 0 ? 0 : range.offset() / range.limit());
+        metadata.setSize(range.limit());
+        metadata.setTotalElements(range.count() ? total : -1);
+        metadata.setTotalPages(!range.count() ? -1 : range.limit() == 0 ? 0 : (total + range.limit() - 1) / range.limit());
+        return new PageWrapper<>(content, metadata);
+    }
+
+    /**
+     * Rows requested either as {@code page}/{@code size} or as {@code offset}/{@code limit}; {@code count=false} skips
+     * the total.
+     */
+    record Range(long offset, int limit, boolean count) {
+    }
+}
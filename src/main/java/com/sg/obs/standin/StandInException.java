@@ -0,0 +1,14 @@
+package com.sg.obs.standin;
+
+import lombok.Getter;
+
+@Getter
+class StandInException extends RuntimeException {
+
+    private final int status;
+
+    StandInException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
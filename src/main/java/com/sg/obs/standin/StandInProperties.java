@@ -0,0 +1,24 @@
+package com.sg.obs.standin;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the stand-in backend ({@code obs.standin.*}). Latency and failures can also be changed at runtime with
+ * {@code PUT /_standin/faults?latency=200ms&jitter=50ms&failureRate=0.1}. {@code offsetScanCost} is added per row an
+ * offset page skips and {@code countScanCost} per row counted for a total, to show what keyset and count-free paging
+ * save.
+ */
+@ConfigurationProperties(prefix = "obs.standin")
+public record StandInProperties(
+        @DefaultValue("8878") int port,
+        @DefaultValue("200") int items,
+        @DefaultValue("25") int inventoriesPerItem,
+        @DefaultValue("0ms") Duration latency,
+        @DefaultValue("0ms") Duration jitter,
+        @DefaultValue("0") double failureRate,
+        @DefaultValue("2us") Duration offsetScanCost,
+        @DefaultValue("2us") Duration countScanCost) {
+}
@@ -0,0 +1,6 @@
+/**
+ * This package contains an in-process stand-in of the inventory backend ({@code /v1/items}, {@code /v1/inventories})
+ * for local and performance testing. It is only started under the {@code standin} profile and serves on its own port,
+ * so the application talks to it through the regular backend client.
+ */
+package com.sg.obs.standin;
@@ -53,6 +53,12 @@ class ArchitectureTest {
         slices().matching(BASE_PACKAGE + ".(*)..").should().beFreeOfCycles().check(importedClasses);
     }
 
+    @Test
+    void application_should_not_depend_on_the_standin_backend() {
+        noClasses().that().resideOutsideOfPackage(BASE_PACKAGE + ".standin..").should().dependOnClassesThat()
+                .resideInAPackage(BASE_PACKAGE + ".standin..").check(importedClasses);
+    }
+
     @Test
     void security_package_should_not_depend_on_other_application_classes() {
         classes().that().resideInAPackage(BASE_PACKAGE + ".security..").should().onlyAccessClassesThat()
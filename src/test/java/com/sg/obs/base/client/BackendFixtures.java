@@ -0,0 +1,84 @@
+package com.sg.obs.base.client;
+
+import com.sg.obs.base.config.BackendClientProperties;
+import com.sg.obs.base.config.CacheProperties;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Backend client pieces for tests that run services without a Spring context or a backend.
+ */
+public final class BackendFixtures {
+
+    public static final BackendClientProperties.Hedging NO_HEDGING =
+            new BackendClientProperties.Hedging(false, 0.95, Duration.ofMillis(20), 256, 50);
+
+    private BackendFixtures() {
+    }
+
+    /**
+     * Defaults of {@code obs.backend.*}, without retries so a failing call fails once.
+     */
+    public static BackendClientProperties clientProperties(BackendClientProperties.Hedging hedging) {
+        return new BackendClientProperties("http://backend/v1", List.of(HttpProtocol.HTTP11),
+                new BackendClientProperties.Pool(10, 100, Duration.ofSeconds(5), Duration.ofSeconds(30),
+                        Duration.ofMinutes(5), Duration.ofSeconds(30)),
+                new BackendClientProperties.Timeouts(Duration.ofSeconds(2), Duration.ofSeconds(10),
+                        Duration.ofSeconds(10)),
+                new BackendClientProperties.Logging(0, Duration.ofSeconds(1), 1024),
+                new BackendClientProperties.Retry(0, Duration.ofMillis(50), Duration.ofMillis(500), 0.5, 0.1, 20),
+                hedging,
+                new BackendClientProperties.Bulk(4),
+                new BackendClientProperties.Paging(false, false));
+    }
+
+    public static CacheProperties cacheProperties() {
+        return new CacheProperties(
+                new CacheProperties.Items(500, Duration.ofSeconds(10), Duration.ofMinutes(5)),
+                new CacheProperties.Lookups(1000, 100, Duration.ofMinutes(1)),
+                new CacheProperties.Counts(1000, Duration.ofMinutes(5)),
+                new CacheProperties.Summaries(10000, Duration.ofSeconds(5)),
+                new CacheProperties.LastKnownGood(5000, Duration.ofHours(1)));
+    }
+
+    public static BackendResilience resilience(BackendClientProperties properties,
+                                               CircuitBreakerRegistry circuitBreakers) {
+        return new BackendResilience(circuitBreakers, BulkheadRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(),
+                properties, cacheProperties(), new SimpleMeterRegistry());
+    }
+
+    public static BackendResilience resilience() {
+        return resilience(clientProperties(NO_HEDGING), CircuitBreakerRegistry.ofDefaults());
+    }
+
+    /**
+     * A client whose requests are answered by {@code backend} instead of going over the network.
+     */
+    public static WebClient webClient(Function<ClientRequest, Mono<ClientResponse>> backend) {
+        return WebClient.builder()
+                .baseUrl("http://backend/v1")
+                .exchangeFunction(backend::apply)
+                .build();
+    }
+
+    public static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}
@@ -0,0 +1,199 @@
+package com.sg.obs.base.client;
+
+import com.sg.obs.base.config.BackendClientProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BackendResilienceTest {
+
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .recordException(new TransientFailure())
+            .build());
+
+    private final BackendResilience resilience = BackendFixtures.resilience(
+            BackendFixtures.clientProperties(BackendFixtures.NO_HEDGING), circuitBreakers);
+
+    @Test
+    void client_errors_leave_the_circuit_closed() {
+        for (int i = 0; i < 6; i++) {
+            StepVerifier.create(resilience.write(BackendEndpoint.ITEMS_CREATE,
+                            Mono.error(new BackendResponseException(404, "Item not found"))))
+                    .verifyError(BackendResponseException.class);
+        }
+
+        assertThat(circuitBreakers.circuitBreaker("items").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void server_errors_open_the_circuit() {
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(resilience.write(BackendEndpoint.ITEMS_CREATE,
+                            Mono.error(new BackendResponseException(503, "Unavailable"))))
+                    .verifyError(BackendResponseException.class);
+        }
+
+        assertThat(circuitBreakers.circuitBreaker("items").getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void slow_primary_answer_wins_over_a_hedge_that_fails_fast() {
+        var hedging = hedgingResilience();
+        warmUp(hedging, 5);
+        var sent = new AtomicInteger();
+
+        var call = Mono.defer(() -> sent.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).thenReturn("primary")
+                : Mono.<String>error(new BackendResponseException(503, "hedge")));
+
+        StepVerifier.create(hedging.read(BackendEndpoint.ITEMS_LIST, "slow", call, stale -> stale))
+                .expectNext("primary")
+                .verifyComplete();
+        assertThat(sent).hasValue(2);
+    }
+
+    @Test
+    void faster_hedge_wins() {
+        var hedging = hedgingResilience();
+        warmUp(hedging, 5);
+        var sent = new AtomicInteger();
+
+        var call = Mono.defer(() -> sent.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(500)).thenReturn("primary")
+                : Mono.just("hedge"));
+
+        StepVerifier.create(hedging.read(BackendEndpoint.ITEMS_LIST, "slow", call, stale -> stale))
+                .expectNext("hedge")
+                .verifyComplete();
+    }
+
+    @Test
+    void primary_error_is_reported_when_both_fail() {
+        var hedging = hedgingResilience();
+        warmUp(hedging, 5);
+        var sent = new AtomicInteger();
+
+        var call = Mono.defer(() -> sent.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(100))
+                        .then(Mono.<String>error(new BackendResponseException(503, "primary")))
+                : Mono.<String>error(new BackendResponseException(502, "hedge")));
+
+        StepVerifier.create(hedging.read(BackendEndpoint.ITEMS_LIST, "failing", call, stale -> stale))
+                .verifyErrorMessage("primary");
+    }
+
+    @Test
+    void non_transient_primary_failure_ends_the_read_without_a_hedge() throws InterruptedException {
+        var hedging = hedgingResilience();
+        warmUp(hedging, 5);
+        var sent = new AtomicInteger();
+
+        var call = Mono.defer(() -> {
+            sent.incrementAndGet();
+            return Mono.<String>error(new BackendResponseException(404, "Item not found"));
+        });
+
+        StepVerifier.create(hedging.read(BackendEndpoint.ITEMS_LIST, "missing", call, stale -> stale))
+                .expectErrorMessage("Item not found")
+                .verify(Duration.ofMillis(15));
+        Thread.sleep(50);
+        assertThat(sent).hasValue(1);
+    }
+
+    @Test
+    void failed_reads_count_towards_the_hedge_delay() {
+        var hedging = hedgingResilience();
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(hedging.read(BackendEndpoint.ITEMS_LIST, "failing",
+                            Mono.delay(Duration.ofMillis(50)).then(Mono.<String>error(
+                                    new BackendResponseException(503, "Unavailable"))), stale -> stale))
+                    .verifyError(BackendResponseException.class);
+        }
+        var sent = new AtomicInteger();
+
+        var call = Mono.defer(() -> {
+            sent.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(300)).thenReturn("primary");
+        });
+
+        StepVerifier.create(hedging.read(BackendEndpoint.ITEMS_LIST, "slow", call, stale -> stale))
+                .expectNext("primary")
+                .verifyComplete();
+        assertThat(sent).hasValue(2);
+    }
+
+    @Test
+    void no_hedge_is_sent_before_the_window_has_min_samples() {
+        var hedging = hedgingResilience();
+        warmUp(hedging, 4);
+        var sent = new AtomicInteger();
+
+        var call = Mono.defer(() -> {
+            sent.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).thenReturn("primary");
+        });
+
+        StepVerifier.create(hedging.read(BackendEndpoint.ITEMS_LIST, "slow", call, stale -> stale))
+                .expectNext("primary")
+                .verifyComplete();
+        assertThat(sent).hasValue(1);
+    }
+
+    @Test
+    void only_transient_failures_are_recorded() {
+        var transientFailure = new TransientFailure();
+
+        assertThat(transientFailure.test(new BackendResponseException(500, "Error"))).isTrue();
+        assertThat(transientFailure.test(new BackendResponseException(429, "Slow down"))).isTrue();
+        assertThat(transientFailure.test(new TimeoutException())).isTrue();
+        assertThat(transientFailure.test(new BackendResponseException(400, "Bad request"))).isFalse();
+        assertThat(transientFailure.test(new BackendResponseException(409, "Conflict"))).isFalse();
+        assertThat(transientFailure.test(new IllegalStateException())).isFalse();
+    }
+
+    @Test
+    void default_circuit_breaker_config_uses_the_transient_failure_predicate() throws Exception {
+        var predicate = loadApplicationProperties()
+                .getProperty("resilience4j.circuitbreaker.configs.default.record-failure-predicate");
+
+        assertThat(Predicate.class.isAssignableFrom(Class.forName(predicate))).isTrue();
+        assertThat(predicate).isEqualTo(TransientFailure.class.getName());
+    }
+
+    /**
+     * Hedges after 20ms once five latencies are known.
+     */
+    private static BackendResilience hedgingResilience() {
+        return BackendFixtures.resilience(BackendFixtures.clientProperties(
+                        new BackendClientProperties.Hedging(true, 0.95, Duration.ofMillis(20), 16, 5)),
+                CircuitBreakerRegistry.ofDefaults());
+    }
+
+    private static void warmUp(BackendResilience resilience, int reads) {
+        for (int i = 0; i < reads; i++) {
+            resilience.read(BackendEndpoint.ITEMS_LIST, "fast", Mono.just("fast"), stale -> stale).block();
+        }
+    }
+
+    private static Properties loadApplicationProperties() throws IOException {
+        return PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.sg.obs.base.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyWindowTest {
+
+    private final LatencyWindow window = new LatencyWindow(4);
+
+    @Test
+    void is_empty_until_min_samples_are_recorded() {
+        assertThat(window.percentile(0.95, 0)).isEmpty();
+
+        record(10, 20, 30);
+
+        assertThat(window.percentile(0.95, 4)).isEmpty();
+        assertThat(window.percentile(0.95, 3)).contains(Duration.ofNanos(30));
+    }
+
+    @Test
+    void percentiles_at_the_ends_of_a_full_window() {
+        record(40, 10, 30, 20);
+
+        assertThat(window.percentile(0.0, 4)).contains(Duration.ofNanos(10));
+        assertThat(window.percentile(0.25, 4)).contains(Duration.ofNanos(10));
+        assertThat(window.percentile(0.5, 4)).contains(Duration.ofNanos(20));
+        assertThat(window.percentile(0.95, 4)).contains(Duration.ofNanos(40));
+        assertThat(window.percentile(1.0, 4)).contains(Duration.ofNanos(40));
+    }
+
+    @Test
+    void oldest_samples_are_overwritten_once_the_window_wraps() {
+        record(40, 10, 30, 20);
+
+        record(5, 6);
+
+        assertThat(window.percentile(0.0, 4)).contains(Duration.ofNanos(5));
+        assertThat(window.percentile(1.0, 4)).contains(Duration.ofNanos(30));
+    }
+
+    @Test
+    void window_of_one_holds_the_last_sample() {
+        var single = new LatencyWindow(1);
+
+        single.record(7);
+        single.record(9);
+
+        assertThat(single.percentile(0.5, 1)).contains(Duration.ofNanos(9));
+    }
+
+    private void record(long... nanos) {
+        for (long sample : nanos) {
+            window.record(sample);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.sg.obs.base.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryParamsTest {
+
+    @Test
+    void sort_becomes_one_property_and_direction_per_order() {
+        var params = QueryParams.withSort(Map.of("page", 0),
+                Sort.by(Sort.Order.desc("createdDate"), Sort.Order.asc("id")));
+
+        assertThat(params).containsEntry("page", 0)
+                .containsEntry("sort", List.of("createdDate,desc", "id,asc"));
+    }
+
+    @Test
+    void unsorted_adds_no_sort_parameter() {
+        assertThat(QueryParams.withSort(Map.of("page", 0), Sort.unsorted())).containsOnlyKeys("page");
+    }
+
+    @Test
+    void given_parameters_are_not_changed() {
+        var given = Map.of("page", 0);
+
+        QueryParams.withSort(given, Sort.by("name"));
+
+        assertThat(given).containsOnlyKeys("page");
+    }
+
+    @Test
+    void collections_become_repeated_parameters() {
+        var params = QueryParams.withSort(Map.of("itemId", List.of(3L, 7L)), Sort.by(Sort.Order.desc("quantity")));
+
+        var uri = QueryParams.addTo(UriComponentsBuilder.fromPath("/inventories"), params).build().toString();
+
+        assertThat(UriComponentsBuilder.fromUriString(uri).build().getQueryParams())
+                .containsEntry("itemId", List.of("3", "7"))
+                .containsEntry("sort", List.of("quantity,desc"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.sg.obs.base.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    void starts_full_and_denies_once_spent() {
+        var budget = new RetryBudget(0.1, 3);
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+
+        assertThat(budget.tryWithdraw()).isFalse();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void refills_one_retry_per_ratio_of_requests() {
+        var budget = new RetryBudget(0.1, 3);
+        spend(budget);
+
+        deposit(budget, 9);
+        assertThat(budget.tryWithdraw()).isFalse();
+
+        deposit(budget, 1);
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void refill_is_capped_at_max_tokens() {
+        var budget = new RetryBudget(0.5, 2);
+        spend(budget);
+
+        deposit(budget, 100);
+
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isTrue();
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    @Test
+    void zero_ratio_never_refills() {
+        var budget = new RetryBudget(0, 1);
+        spend(budget);
+
+        deposit(budget, 1000);
+
+        assertThat(budget.tryWithdraw()).isFalse();
+    }
+
+    private static void spend(RetryBudget budget) {
+        while (budget.tryWithdraw()) {
+            // drain
+        }
+    }
+
+    private static void deposit(RetryBudget budget, int requests) {
+        for (int i = 0; i < requests; i++) {
+            budget.deposit();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.sg.obs.base.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private static final String KEY = "/items?page=0";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @Test
+    void key_does_not_depend_on_parameter_order() {
+        var given = new LinkedHashMap<String, Object>();
+        given.put("size", 20);
+        given.put("page", 0);
+        given.put("name", "");
+        given.put("sort", List.of("price,asc", "id,desc"));
+
+        assertThat(SingleFlight.key("/items", given))
+                .isEqualTo(SingleFlight.key("/items", Map.of("name", "", "page", 0, "size", 20,
+                        "sort", List.of("price,asc", "id,desc"))))
+                .isEqualTo("/items?name=&page=0&size=20&sort=[price,asc, id,desc]");
+        assertThat(SingleFlight.key("/items", Map.of())).isEqualTo("/items?");
+    }
+
+    @Test
+    void concurrent_reads_of_a_key_share_one_request() {
+        var response = Sinks.<String>one();
+
+        var first = execute(KEY, response.asMono()).toFuture();
+        var second = execute(KEY, response.asMono()).toFuture();
+        response.tryEmitValue("page");
+
+        assertThat(first.join()).isEqualTo("page");
+        assertThat(second.join()).isEqualTo("page");
+        assertThat(sent).hasValue(1);
+        assertThat(meterRegistry.get("obs.backend.requests.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void different_keys_are_not_coalesced() {
+        var response = Sinks.<String>one();
+
+        execute(KEY, response.asMono()).subscribe();
+        execute("/items?page=1", response.asMono()).subscribe();
+
+        assertThat(sent).hasValue(2);
+    }
+
+    @Test
+    void completed_request_is_not_reused() {
+        StepVerifier.create(execute(KEY, Mono.just("first"))).expectNext("first").verifyComplete();
+        StepVerifier.create(execute(KEY, Mono.just("second"))).expectNext("second").verifyComplete();
+
+        assertThat(sent).hasValue(2);
+    }
+
+    @Test
+    void failed_request_is_dropped() {
+        StepVerifier.create(execute(KEY, Mono.error(new IllegalStateException("down"))))
+                .verifyErrorMessage("down");
+
+        StepVerifier.create(execute(KEY, Mono.just("page"))).expectNext("page").verifyComplete();
+        assertThat(sent).hasValue(2);
+    }
+
+    @Test
+    void request_cancelled_by_every_caller_is_dropped() {
+        var cancelled = new AtomicInteger();
+        var response = Sinks.<String>one();
+
+        var subscription = execute(KEY, response.asMono().doOnCancel(cancelled::incrementAndGet)).subscribe();
+        subscription.dispose();
+
+        assertThat(cancelled).hasValue(1);
+        StepVerifier.create(execute(KEY, Mono.just("page"))).expectNext("page").verifyComplete();
+        assertThat(sent).hasValue(2);
+    }
+
+    @Test
+    void forgotten_request_neither_serves_later_reads_nor_removes_their_request() {
+        var beforeWrite = Sinks.<String>one();
+        var afterWrite = Sinks.<String>one();
+
+        var stale = execute(KEY, beforeWrite.asMono()).toFuture();
+        singleFlight.forget("/items");
+        var fresh = execute(KEY, afterWrite.asMono()).toFuture();
+        beforeWrite.tryEmitValue("old");
+        var attached = execute(KEY, Mono.just("unused")).toFuture();
+        afterWrite.tryEmitValue("new");
+
+        assertThat(stale.join()).isEqualTo("old");
+        assertThat(fresh.join()).isEqualTo("new");
+        assertThat(attached.join()).isEqualTo("new");
+        assertThat(sent).hasValue(2);
+    }
+
+    @Test
+    void forget_leaves_other_paths_in_flight() {
+        var response = Sinks.<String>one();
+
+        execute("/inventories?page=0", response.asMono()).subscribe();
+        singleFlight.forget("/items");
+        execute("/inventories?page=0", response.asMono()).subscribe();
+
+        assertThat(sent).hasValue(1);
+    }
+
+    private Mono<String> execute(String key, Mono<String> response) {
+        return singleFlight.execute(BackendEndpoint.ITEMS_LIST, key, () -> {
+            sent.incrementAndGet();
+            return response;
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.sg.obs.base.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebClientLoggingFilterTest {
+
+    @Test
+    void short_body_is_shown_whole() {
+        assertThat(WebClientLoggingFilter.excerpt("{\"code\":\"E1\"}", 1024)).isEqualTo("{\"code\":\"E1\"}");
+    }
+
+    @Test
+    void limit_counts_bytes_not_characters() {
+        // each é is two bytes
+        assertThat(WebClientLoggingFilter.excerpt("éééé", 4)).isEqualTo("éé...");
+    }
+
+    @Test
+    void character_split_by_the_limit_is_left_out() {
+        assertThat(WebClientLoggingFilter.excerpt("aé", 2)).isEqualTo("a...");
+        assertThat(WebClientLoggingFilter.excerpt("a€", 3)).isEqualTo("a...");
+        assertThat(WebClientLoggingFilter.excerpt("a📦b", 4)).isEqualTo("a...");
+        assertThat(WebClientLoggingFilter.excerpt("a📦b", 5)).isEqualTo("a📦...");
+    }
+
+    @Test
+    void excerpt_of_streamed_bytes_matches_the_error_path() {
+        var body = "Stock für Artikel 7 überschritten".getBytes(StandardCharsets.UTF_8);
+
+        // "f" is byte 6, "ü" bytes 7 and 8
+        assertThat(WebClientLoggingFilter.excerpt(body, 8, true)).isEqualTo("Stock f...");
+        assertThat(WebClientLoggingFilter.excerpt("Stock für Artikel 7 überschritten", 8)).isEqualTo("Stock f...");
+    }
+
+    @Test
+    void zero_limit_shows_only_that_the_body_was_cut() {
+        assertThat(WebClientLoggingFilter.excerpt("body", 0)).isEqualTo("...");
+        assertThat(WebClientLoggingFilter.excerpt("", 0)).isEmpty();
+    }
+}
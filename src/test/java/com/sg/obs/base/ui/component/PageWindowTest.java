@@ -0,0 +1,97 @@
+package com.sg.obs.base.ui.component;
+
+import com.sg.obs.base.client.StalePage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageWindowTest {
+
+    private static final int TOTAL = 1000;
+
+    private final List<PageRequest> requests = new ArrayList<>();
+
+    private boolean stale;
+
+    private final PageWindow<Integer> window = new PageWindow<>(this::fetch, 100, 1);
+
+    @Test
+    void count_loads_the_first_page_once() {
+        assertThat(window.count(Sort.unsorted(), GridFilter.NONE)).isEqualTo(TOTAL);
+        assertThat(window.count(Sort.unsorted(), GridFilter.NONE)).isEqualTo(TOTAL);
+
+        assertThat(window.fetch(0, 50, Sort.unsorted(), GridFilter.NONE)).startsWith(0, 1, 2).hasSize(50);
+        assertThat(requests).extracting(PageRequest::getPageNumber).containsExactly(0);
+    }
+
+    @Test
+    void range_across_a_page_boundary_is_stitched_from_both_pages() {
+        var rows = window.fetch(150, 60, Sort.unsorted(), GridFilter.NONE);
+
+        assertThat(rows).containsExactlyElementsOf(IntStream.range(150, 210).boxed().toList());
+        assertThat(requests).extracting(PageRequest::getPageNumber).containsExactly(1, 2);
+        assertThat(requests).allSatisfy(request -> assertThat(request.getPageSize()).isEqualTo(100));
+    }
+
+    @Test
+    void range_at_the_end_is_cut_to_the_rows_that_exist() {
+        var rows = window.fetch(980, 50, Sort.unsorted(), GridFilter.NONE);
+
+        assertThat(rows).containsExactlyElementsOf(IntStream.range(980, 1000).boxed().toList());
+    }
+
+    @Test
+    void pages_within_the_margin_are_kept_and_farther_ones_evicted() {
+        window.fetch(0, 50, Sort.unsorted(), GridFilter.NONE);
+        window.fetch(100, 50, Sort.unsorted(), GridFilter.NONE);
+        window.fetch(0, 50, Sort.unsorted(), GridFilter.NONE);
+        assertThat(requests).extracting(PageRequest::getPageNumber).containsExactly(0, 1);
+
+        window.fetch(500, 50, Sort.unsorted(), GridFilter.NONE);
+        window.fetch(0, 50, Sort.unsorted(), GridFilter.NONE);
+
+        assertThat(requests).extracting(PageRequest::getPageNumber).containsExactly(0, 1, 5, 0);
+    }
+
+    @Test
+    void sort_or_filter_change_drops_every_page() {
+        window.fetch(0, 50, Sort.unsorted(), GridFilter.NONE);
+        var filter = new GridFilter("widget", Map.of());
+
+        window.fetch(0, 50, Sort.by("price"), GridFilter.NONE);
+        window.fetch(0, 50, Sort.by("price"), filter);
+
+        assertThat(requests).hasSize(3);
+        assertThat(requests.get(1).getSort()).isEqualTo(Sort.by("price"));
+    }
+
+    @Test
+    void reports_stale_while_a_stale_page_is_held() {
+        stale = true;
+        window.fetch(0, 50, Sort.unsorted(), GridFilter.NONE);
+        assertThat(window.isStale()).isTrue();
+
+        stale = false;
+        window.reset();
+        window.fetch(0, 50, Sort.unsorted(), GridFilter.NONE);
+        assertThat(window.isStale()).isFalse();
+    }
+
+    private Mono<Page<Integer>> fetch(PageRequest request, GridFilter filter) {
+        requests.add(request);
+        int from = (int) Math.min(TOTAL, request.getOffset());
+        var content = IntStream.range(from, Math.min(TOTAL, from + request.getPageSize())).boxed().toList();
+        Page<Integer> page = new PageImpl<>(content, request, TOTAL);
+        return Mono.just(stale ? StalePage.of(page) : page);
+    }
+}
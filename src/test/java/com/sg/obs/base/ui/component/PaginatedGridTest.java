@@ -0,0 +1,246 @@
+package com.sg.obs.base.ui.component;
+
+import com.github.mvysny.kaributesting.v10.MockVaadin;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.grid.GridSortOrder;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.communication.UidlWriter;
+import com.vaadin.flow.data.provider.DataChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaginatedGridTest {
+
+    private static final Pattern ROW_DATA = Pattern.compile("\\{\"key\":\"");
+
+    record Row(long id, double price) {
+    }
+
+    private final List<PageRequest> requests = new CopyOnWriteArrayList<>();
+    private final List<Object> refreshedItems = new ArrayList<>();
+    private final AtomicInteger refreshedAll = new AtomicInteger();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private volatile List<Row> backendRows = List.of();
+
+    private PaginatedGrid<Row> grid;
+
+    @BeforeEach
+    void setUp() {
+        MockVaadin.setup();
+        grid = new PaginatedGrid<>(Row.class, (pageable, filter) -> {
+            requests.add(pageable);
+            return Mono.just(new PageImpl<>(backendRows, pageable, backendRows.size()));
+        });
+        grid.setRowId(Row::id);
+        grid.setLoadDebounce(Duration.ZERO);
+        grid.addColumn(Row::id, "ID");
+        grid.addRowsLoadedListener(rows -> loads.incrementAndGet());
+        grid.getDataProvider().addDataProviderListener(event -> {
+            if (event instanceof DataChangeEvent.DataRefreshEvent<?> refresh) {
+                refreshedItems.add(refresh.getItem());
+            } else {
+                refreshedAll.incrementAndGet();
+            }
+        });
+        UI.getCurrent().add(grid);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockVaadin.tearDown();
+    }
+
+    @Test
+    void reload_with_one_changed_row_refreshes_only_that_row() {
+        load(new Row(1, 10), new Row(2, 20), new Row(3, 30));
+        refreshedAll.set(0);
+
+        load(new Row(1, 10), new Row(2, 25), new Row(3, 30));
+
+        assertThat(refreshedItems).containsExactly(new Row(2, 25));
+        assertThat(refreshedAll).hasValue(0);
+        assertThat(shownRows()).containsExactly(new Row(1, 10), new Row(2, 25), new Row(3, 30));
+    }
+
+    @Test
+    void identical_reload_refreshes_nothing() {
+        load(new Row(1, 10), new Row(2, 20));
+        refreshedAll.set(0);
+
+        load(new Row(1, 10), new Row(2, 20));
+
+        assertThat(refreshedItems).isEmpty();
+        assertThat(refreshedAll).hasValue(0);
+    }
+
+    @Test
+    void other_rows_reset_the_grid() {
+        load(new Row(1, 10), new Row(2, 20));
+        refreshedAll.set(0);
+
+        load(new Row(3, 30), new Row(4, 40));
+
+        assertThat(refreshedItems).isEmpty();
+        assertThat(refreshedAll).hasValue(1);
+        assertThat(shownRows()).containsExactly(new Row(3, 30), new Row(4, 40));
+    }
+
+    @Test
+    void reordered_or_resized_rows_reset_the_grid() {
+        load(new Row(1, 10), new Row(2, 20));
+        refreshedAll.set(0);
+
+        load(new Row(2, 20), new Row(1, 10));
+        load(new Row(2, 20));
+
+        assertThat(refreshedItems).isEmpty();
+        assertThat(refreshedAll).hasValue(2);
+        assertThat(shownRows()).containsExactly(new Row(2, 20));
+    }
+
+    @Test
+    void sorting_a_display_column_keeps_the_backend_order() {
+        var price = grid.addDisplayColumn(row -> String.format("%.2f", row.price()), "Price", "price");
+        backendRows = List.of(new Row(1, 30), new Row(2, 200), new Row(3, 1000));
+        int before = loads.get();
+
+        grid.getGrid().sort(List.of(new GridSortOrder<>(price, SortDirection.ASCENDING)));
+        awaitLoad(before);
+
+        assertThat(requests.getLast().getSort()).isEqualTo(Sort.by(Sort.Order.asc("price")));
+        // as text, "1000.00" would sort before "200.00" and "30.00"
+        assertThat(shownRows()).containsExactly(new Row(1, 30), new Row(2, 200), new Row(3, 1000));
+    }
+
+    @Test
+    void reload_with_one_changed_row_sends_only_that_row() {
+        grid.addDisplayColumn(row -> String.format("%.2f", row.price()), "Price");
+        load(page(0));
+        uidl();
+
+        load(page(1));
+        var diff = uidl();
+        load(page(2));
+        grid.getDataProvider().refreshAll();
+        var full = uidl();
+
+        assertThat(rowsSent(diff)).isEqualTo(1);
+        assertThat(rowsSent(full)).isGreaterThan(1);
+        assertThat(diff.length()).isLessThan(full.length() / 3);
+    }
+
+    @Test
+    void action_column_sends_nothing_per_row() {
+        load(page(0));
+        uidl();
+        grid.getDataProvider().refreshAll();
+        var without = uidl();
+
+        grid.addActionColumn(row -> {
+        }, row -> {
+        });
+        uidl();
+        grid.getDataProvider().refreshAll();
+        var with = uidl();
+
+        assertThat(rowsSent(with)).isEqualTo(rowsSent(without)).isGreaterThan(1);
+        assertThat(with.length()).isEqualTo(without.length());
+    }
+
+    @Test
+    void display_cells_are_formatted_once_per_fetched_row() {
+        var formatted = new AtomicInteger();
+        grid.addDisplayColumn(row -> {
+            formatted.incrementAndGet();
+            return String.valueOf(row.price());
+        }, "Price");
+        load(new Row(1, 10), new Row(2, 20), new Row(3, 30));
+        MockVaadin.clientRoundtrip();
+        assertThat(formatted).hasValue(3);
+
+        grid.getDataProvider().refreshAll();
+        MockVaadin.clientRoundtrip();
+        assertThat(formatted).hasValue(3);
+
+        load(new Row(1, 10), new Row(2, 25), new Row(3, 30));
+        MockVaadin.clientRoundtrip();
+        assertThat(formatted).hasValue(4);
+    }
+
+    @Test
+    void cursor_paging_turns_off_column_sorting() {
+        var price = grid.addColumn(Row::price, "Price", "price");
+
+        grid.setCursorPaging((cursor, direction, size, filter) -> Mono.never());
+
+        assertThat(price.isSortable()).isFalse();
+    }
+
+    /**
+     * The rows in the order the grid shows them, after any in-memory sorting.
+     */
+    private List<Row> shownRows() {
+        return grid.getGrid().getGenericDataView().getItems().toList();
+    }
+
+    /**
+     * 100 rows with the price of row 50 set to {@code changedPrice}.
+     */
+    private static Row[] page(int changedPrice) {
+        return IntStream.range(0, 100)
+                .mapToObj(id -> new Row(id, id == 50 ? changedPrice : id * 12.5))
+                .toArray(Row[]::new);
+    }
+
+    /**
+     * The UIDL response the pending changes would be sent in; writing it also marks them as sent.
+     */
+    private static String uidl() {
+        return new UidlWriter().createUidl(UI.getCurrent(), false).toString();
+    }
+
+    private static long rowsSent(String uidl) {
+        return ROW_DATA.matcher(uidl).results().count();
+    }
+
+    private void load(Row... rows) {
+        backendRows = List.of(rows);
+        int before = loads.get();
+        grid.loadPage(0);
+        awaitLoad(before);
+    }
+
+    /**
+     * Runs the pending {@code ui.access} tasks until the grid has shown a new load. The changes they make are left for
+     * {@link #uidl()} or the next {@link MockVaadin#clientRoundtrip()}.
+     */
+    private void awaitLoad(int before) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (loads.get() == before) {
+            VaadinService.getCurrent().runPendingAccessTasks(VaadinSession.getCurrent());
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Grid did not show a load within 5s");
+            }
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+}
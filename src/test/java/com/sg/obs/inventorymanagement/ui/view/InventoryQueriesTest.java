@@ -0,0 +1,106 @@
+package com.sg.obs.inventorymanagement.ui.view;
+
+import com.sg.obs.base.ui.component.GridFilter;
+import com.sg.obs.inventorymanagement.domain.InventoryQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryQueriesTest {
+
+    @Test
+    void empty_filter_does_not_filter() {
+        assertThat(InventoryQueries.from(GridFilter.NONE)).isEqualTo(InventoryQuery.ALL);
+        assertThat(query(Map.of(InventoryQueries.ITEM_IDS, " ", InventoryQueries.QUANTITY, " ",
+                InventoryQueries.CREATED, " "))).isEqualTo(InventoryQuery.ALL);
+    }
+
+    @Test
+    void item_ids_are_comma_separated_and_replace_the_free_text_id() {
+        assertThat(InventoryQueries.from(new GridFilter("5", Map.of())).itemIds()).containsExactly(5L);
+        assertThat(InventoryQueries.from(new GridFilter("5", Map.of(InventoryQueries.ITEM_IDS, "3, 7,,")))
+                .itemIds()).containsExactly(3L, 7L);
+    }
+
+    @Test
+    void malformed_item_ids_fall_back_to_the_free_text_id() {
+        assertThat(InventoryQueries.from(new GridFilter("5", Map.of(InventoryQueries.ITEM_IDS, "3,x"))).itemIds())
+                .containsExactly(5L);
+        assertThat(InventoryQueries.from(new GridFilter("abc", Map.of())).itemIds()).isEmpty();
+    }
+
+    @Test
+    void quantity_bounds() {
+        assertQuantity("100", 100, 100);
+        assertQuantity(">100", 101, null);
+        assertQuantity(">= 100", 100, null);
+        assertQuantity("<100", null, 99);
+        assertQuantity("<=100", null, 100);
+        assertQuantity("10 - 50", 10, 50);
+        assertQuantity(">2147483646", Integer.MAX_VALUE, null);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {">", "<=", "-5", "10-", "1-2-3", "ten", ">x", "99999999999",
+            ">2147483647", "<-2147483648"})
+    void malformed_quantity_does_not_filter(String value) {
+        assertQuantity(value, null, null);
+    }
+
+    @Test
+    void type_is_case_insensitive_and_limited_to_top_up_and_withdrawal() {
+        assertThat(query(Map.of(InventoryQueries.TYPE, "w")).type()).isEqualTo("W");
+        assertThat(query(Map.of(InventoryQueries.TYPE, "T")).type()).isEqualTo("T");
+        assertThat(query(Map.of(InventoryQueries.TYPE, "TW")).type()).isNull();
+    }
+
+    @Test
+    void created_ranges() {
+        var day = LocalDate.of(2024, 3, 1);
+        var end = LocalDate.of(2024, 3, 31);
+
+        assertCreated("2024-03-01", day, day);
+        assertCreated("2024-03-01..2024-03-31", day, end);
+        assertCreated("2024-03-01..", day, null);
+        assertCreated("..2024-03-31", null, end);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-3-1", "2024-03-01...2024-03-31", "2024-02-30", "..", "2024-03-01..x"})
+    void malformed_created_range_does_not_filter(String value) {
+        assertCreated(value, null, null);
+    }
+
+    @Test
+    void each_filter_is_parsed_on_its_own() {
+        var query = query(Map.of(
+                InventoryQueries.ITEM_IDS, "3,7",
+                InventoryQueries.TYPE, "x",
+                InventoryQueries.QUANTITY, ">=10",
+                InventoryQueries.CREATED, "soon"));
+
+        assertThat(query).isEqualTo(new InventoryQuery(List.of(3L, 7L), null, null, null, 10, null));
+    }
+
+    private static void assertQuantity(String value, Integer min, Integer max) {
+        var query = query(Map.of(InventoryQueries.QUANTITY, value));
+        assertThat(query.minQuantity()).as("min of %s", value).isEqualTo(min);
+        assertThat(query.maxQuantity()).as("max of %s", value).isEqualTo(max);
+    }
+
+    private static void assertCreated(String value, LocalDate from, LocalDate to) {
+        var query = query(Map.of(InventoryQueries.CREATED, value));
+        assertThat(query.createdFrom()).as("from of %s", value).isEqualTo(from);
+        assertThat(query.createdTo()).as("to of %s", value).isEqualTo(to);
+    }
+
+    private static InventoryQuery query(Map<String, String> columns) {
+        return InventoryQueries.from(new GridFilter("", columns));
+    }
+}
@@ -0,0 +1,87 @@
+package com.sg.obs.itemmanagement.service;
+
+import com.sg.obs.base.client.BackendFixtures;
+import com.sg.obs.base.client.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A {@code /items} backend answering page reads by name and recording their query parameters.
+ */
+class ItemBackendStub {
+
+    /**
+     * A few fruits, then 250 widgets: more than the 100 options a lookup prefetches.
+     */
+    final List<String> names = new ArrayList<>(List.of("Apple", "Apricot", "Pineapple", "Banana", "Grape"));
+
+    final Queue<MultiValueMap<String, String>> reads = new ConcurrentLinkedQueue<>();
+
+    /**
+     * When set, read responses are held back until it completes.
+     */
+    volatile Mono<Void> held;
+
+    /**
+     * When set, reads fail as if the backend were unavailable.
+     */
+    volatile boolean down;
+
+    ItemBackendStub() {
+        IntStream.rangeClosed(1, 250).forEach(i -> names.add("Widget-%03d".formatted(i)));
+    }
+
+    ItemService service() {
+        return new ItemService(BackendFixtures.webClient(this::answer), new SingleFlight(new SimpleMeterRegistry()),
+                BackendFixtures.resilience(), BackendFixtures.cacheProperties(), new SimpleMeterRegistry());
+    }
+
+    private Mono<ClientResponse> answer(ClientRequest request) {
+        if (request.method() == HttpMethod.POST) {
+            names.add("Apple pie");
+        }
+        if (request.method() != HttpMethod.GET) {
+            return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+        }
+        var params = new LinkedMultiValueMap<String, String>();
+        UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().forEach((name, values) ->
+                values.forEach(value -> params.add(name, URLDecoder.decode(value, StandardCharsets.UTF_8))));
+        reads.add(params);
+        if (down) {
+            return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+        var filter = params.getFirst("name").toLowerCase(Locale.ROOT);
+        var matches = IntStream.range(0, names.size())
+                .filter(i -> names.get(i).toLowerCase(Locale.ROOT).contains(filter))
+                .boxed()
+                .toList();
+        int size = Integer.parseInt(params.getFirst("size"));
+        int from = Math.min(matches.size(), Integer.parseInt(params.getFirst("page")) * size);
+        var content = matches.subList(from, Math.min(matches.size(), from + size)).stream()
+                .map(i -> "{\"id\":%d,\"name\":\"%s\",\"price\":1.0,\"remainingStock\":1}"
+                        .formatted(i + 1, names.get(i)))
+                .collect(Collectors.joining(","));
+        var response = Mono.just(BackendFixtures.json("""
+                {"data":{"content":[%s],"page":{"number":0,"size":%d,"totalElements":%d,"totalPages":0}}}"""
+                .formatted(content, size, matches.size())));
+        var gate = held;
+        return gate == null ? response : response.delayUntil(it -> gate);
+    }
+}
@@ -0,0 +1,62 @@
+package com.sg.obs.itemmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The item picker's option lookup: {@link ItemService#countOptions(String)} and
+ * {@link ItemService#findOptions(String, int, int)}.
+ */
+class ItemServiceOptionsTest {
+
+    private final ItemBackendStub backend = new ItemBackendStub();
+
+    private final ItemService service = backend.service();
+
+    @Test
+    void longer_filter_is_narrowed_from_a_complete_shorter_lookup_ignoring_case() {
+        assertThat(service.countOptions("ap").block()).isEqualTo(4);
+
+        var options = service.findOptions("  APP ", 0, 10).block();
+
+        assertThat(options).extracting("name").containsExactly("Apple", "Pineapple");
+        assertThat(service.countOptions("App").block()).isEqualTo(2);
+        assertThat(backend.reads).hasSize(1);
+    }
+
+    @Test
+    void incomplete_lookup_is_not_narrowed() {
+        assertThat(service.countOptions("widget").block()).isEqualTo(250);
+        assertThat(service.findOptions("widget", 0, 100).block()).hasSize(100);
+
+        assertThat(service.countOptions("widget-2").block()).isEqualTo(51);
+
+        assertThat(backend.reads).hasSize(2);
+        assertThat(backend.reads).last().satisfies(params -> assertThat(params.getFirst("name")).isEqualTo("widget-2"));
+    }
+
+    @Test
+    void offsets_past_an_incomplete_lookup_are_read_as_pages() {
+        service.countOptions("widget").block();
+
+        var options = service.findOptions("widget", 150, 50).block();
+
+        assertThat(options).extracting("name").first().isEqualTo("Widget-151");
+        assertThat(backend.reads).last().satisfies(params -> {
+            assertThat(params.getFirst("page")).isEqualTo("3");
+            assertThat(params.getFirst("size")).isEqualTo("50");
+        });
+    }
+
+    @Test
+    void create_invalidates_every_lookup() {
+        service.countOptions("ap").block();
+        backend.reads.clear();
+
+        service.createItem("Apple pie", 3).block();
+
+        assertThat(service.countOptions("ap").block()).isEqualTo(5);
+        assertThat(backend.reads).hasSize(1);
+    }
+}
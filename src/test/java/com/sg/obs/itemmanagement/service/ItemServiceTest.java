@@ -0,0 +1,89 @@
+package com.sg.obs.itemmanagement.service;
+
+import com.sg.obs.base.client.StalePage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemServiceTest {
+
+    private final ItemBackendStub backend = new ItemBackendStub();
+
+    private final ItemService service = backend.service();
+
+    @Test
+    void update_invalidates_the_pages_holding_the_item_and_every_filtered_or_sorted_page() {
+        var first = PageRequest.of(0, 10);
+        var second = PageRequest.of(1, 10);
+        var sorted = PageRequest.of(1, 10, Sort.by("price"));
+        readAll(first, second, sorted);
+        service.getItems(first, "widget").block();
+        backend.reads.clear();
+
+        service.updateItem(3L, "Pineapples", 2.5).block();
+        readAll(first, second, sorted);
+        service.getItems(first, "widget").block();
+
+        assertThat(backend.reads).extracting(params -> params.getFirst("page") + "/" + params.getFirst("name")
+                        + "/" + params.getFirst("sort"))
+                .containsExactlyInAnyOrder("0//null", "1//price,asc", "0/widget/null");
+    }
+
+    @Test
+    void create_invalidates_every_page() {
+        var first = PageRequest.of(0, 10);
+        var second = PageRequest.of(1, 10);
+        readAll(first, second);
+        backend.reads.clear();
+
+        service.createItem("Apple pie", 3).block();
+        readAll(first, second);
+
+        assertThat(backend.reads).hasSize(2);
+    }
+
+    @Test
+    void read_after_a_write_does_not_attach_to_a_read_sent_before_it() {
+        var first = PageRequest.of(0, 10);
+        var gate = Sinks.<Void>empty();
+        backend.held = gate.asMono();
+        var beforeWrite = service.getItems(first, "").toFuture();
+        backend.held = null;
+
+        backend.names.set(2, "Pineapples");
+        service.updateItem(3L, "Pineapples", 1.0).block();
+        var afterWrite = service.getItems(first, "").block(Duration.ofSeconds(5));
+        gate.tryEmitEmpty();
+
+        assertThat(afterWrite.getContent().get(2).getName()).isEqualTo("Pineapples");
+        assertThat(beforeWrite.join().getContent().get(2).getName()).isEqualTo("Pineapple");
+        assertThat(backend.reads).hasSize(2);
+    }
+
+    @Test
+    void stale_fallback_is_served_but_not_cached() {
+        var first = PageRequest.of(0, 10);
+        service.getItems(first, "").block();
+        service.createItem("Apple pie", 3).block();
+        backend.down = true;
+
+        var duringOutage = service.getItems(first, "").block();
+        backend.down = false;
+        var afterOutage = service.getItems(first, "").block();
+
+        assertThat(duringOutage).isInstanceOf(StalePage.class);
+        assertThat(afterOutage).isNotInstanceOf(StalePage.class);
+        assertThat(backend.reads).hasSize(3);
+    }
+
+    private void readAll(PageRequest... pageRequests) {
+        for (var pageRequest : pageRequests) {
+            service.getItems(pageRequest, "").block();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.sg.obs.standin;
+
+import com.sg.obs.base.domain.CursorDirection;
+import com.sg.obs.base.domain.CursorPage;
+import com.sg.obs.inventorymanagement.domain.InventoryDetails;
+import com.sg.obs.inventorymanagement.domain.InventoryQuery;
+import com.sg.obs.inventorymanagement.domain.InventoryRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StandInDataTest {
+
+    /**
+     * Four items with six generated rows each: ids 1 to 24, row {@code id} belonging to item {@code (id - 1) % 4 + 1}.
+     */
+    private final StandInData data = new StandInData(properties(4, 6));
+
+    @Test
+    void keyset_pages_walk_the_whole_history_newest_first() {
+        var first = page(InventoryQuery.ALL, CursorDirection.FIRST, null, 10);
+        assertThat(ids(first)).containsExactly(24L, 23L, 22L, 21L, 20L, 19L, 18L, 17L, 16L, 15L);
+        assertThat(first.hasPrevious()).isFalse();
+        assertThat(first.hasNext()).isTrue();
+
+        var second = page(InventoryQuery.ALL, CursorDirection.NEXT, first.content().getLast(), 10);
+        assertThat(ids(second)).containsExactly(14L, 13L, 12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L);
+
+        var last = page(InventoryQuery.ALL, CursorDirection.NEXT, second.content().getLast(), 10);
+        assertThat(ids(last)).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(last.hasPrevious()).isTrue();
+        assertThat(last.hasNext()).isFalse();
+
+        var back = page(InventoryQuery.ALL, CursorDirection.PREVIOUS, last.content().getFirst(), 10);
+        assertThat(ids(back)).isEqualTo(ids(second));
+    }
+
+    @Test
+    void last_page_holds_the_oldest_rows_newest_first() {
+        var last = page(InventoryQuery.ALL, CursorDirection.LAST, null, 10);
+
+        assertThat(ids(last)).containsExactly(10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(last.hasPrevious()).isTrue();
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void item_history_ending_exactly_at_a_page_boundary_has_no_next_page() {
+        var item = new InventoryQuery(List.of(2L), null, null, null, null, null);
+
+        var first = page(item, CursorDirection.FIRST, null, 3);
+        var second = page(item, CursorDirection.NEXT, first.content().getLast(), 3);
+
+        assertThat(ids(first)).containsExactly(22L, 18L, 14L);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(ids(second)).containsExactly(10L, 6L, 2L);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(page(item, CursorDirection.NEXT, second.content().getLast(), 3).content()).isEmpty();
+    }
+
+    @Test
+    void saved_rows_come_before_the_generated_history() {
+        data.saveInventory(new InventoryRequest(1L, 5, "T"));
+
+        var first = page(InventoryQuery.ALL, CursorDirection.FIRST, null, 1);
+        var next = page(InventoryQuery.ALL, CursorDirection.NEXT, first.content().getLast(), 2);
+        var previous = page(InventoryQuery.ALL, CursorDirection.PREVIOUS, next.content().getFirst(), 2);
+
+        assertThat(ids(first)).containsExactly(25L);
+        assertThat(first.content().getFirst().getQuantity()).isEqualTo(5);
+        assertThat(ids(next)).containsExactly(24L, 23L);
+        assertThat(ids(previous)).containsExactly(25L);
+        assertThat(previous.hasPrevious()).isFalse();
+    }
+
+    @Test
+    void generated_rows_follow_their_id() {
+        var rows = data.inventories(InventoryQuery.ALL, new StandInData.Range(0, 24, true), Sort.unsorted());
+
+        assertThat(rows.getMetadata().getTotalElements()).isEqualTo(24);
+        for (var row : rows.getContent()) {
+            assertThat(row.getItemId()).isEqualTo((row.getId() - 1) % 4 + 1);
+            assertThat(row.getItemName()).isEqualTo("Item " + row.getItemId());
+        }
+        var oldest = rows.getContent().getLast();
+        assertThat(rows.getContent().getFirst().getCreatedDate())
+                .isEqualTo(oldest.getCreatedDate().plusSeconds(23));
+        // every item's third row withdraws what its first topped up
+        assertThat(rows.getContent().stream().filter(row -> row.getItemId() == 1).map(InventoryDetails::getType))
+                .containsExactly("W", "T", "T", "W", "T", "T");
+    }
+
+    @Test
+    void summary_matches_the_stock_of_the_generated_history() {
+        for (long itemId = 1; itemId <= 4; itemId++) {
+            var summary = data.summary(itemId);
+            var item = data.items(String.valueOf(itemId), new StandInData.Range(0, 1, false), Sort.unsorted())
+                    .getContent().getFirst();
+
+            assertThat(summary.getTopUpCount()).isEqualTo(4);
+            assertThat(summary.getWithdrawCount()).isEqualTo(2);
+            assertThat(summary.getRemainingStock()).isEqualTo(item.getStock()).isPositive();
+        }
+    }
+
+    @Test
+    void offset_page_past_the_end_is_empty() {
+        var rows = data.inventories(InventoryQuery.ALL, new StandInData.Range(20, 10, false), Sort.unsorted());
+        var beyond = data.inventories(InventoryQuery.ALL, new StandInData.Range(30, 10, true), Sort.unsorted());
+
+        assertThat(rows.getContent()).extracting(InventoryDetails::getId).containsExactly(4L, 3L, 2L, 1L);
+        assertThat(rows.getMetadata().getTotalElements()).isEqualTo(-1);
+        assertThat(beyond.getContent()).isEmpty();
+    }
+
+    @Test
+    void unknown_items_are_not_found() {
+        assertStatus(() -> data.summary(99), 404);
+        assertStatus(() -> data.updateItem(99, "Ghost", 1), 404);
+        assertStatus(() -> data.deleteItem(99), 404);
+        assertStatus(() -> data.saveInventory(new InventoryRequest(99L, 1, "T")), 404);
+        assertThat(data.summaries(List.of(1L, 99L))).hasSize(1);
+    }
+
+    @Test
+    void invalid_inventory_requests_are_rejected() {
+        var stock = data.summary(1).getRemainingStock();
+
+        assertStatus(() -> data.saveInventory(new InventoryRequest(1L, 0, "T")), 400);
+        assertStatus(() -> data.saveInventory(new InventoryRequest(1L, 1, "X")), 400);
+        assertStatus(() -> data.saveInventory(new InventoryRequest(1L, (int) stock + 1, "W")), 400);
+        assertThat(data.summary(1).getRemainingStock()).isEqualTo(stock);
+    }
+
+    @Test
+    void sorting_a_huge_history_is_rejected() {
+        var huge = new StandInData(properties(1000, 1001));
+
+        assertStatus(() -> huge.inventories(InventoryQuery.ALL, new StandInData.Range(0, 10, false),
+                Sort.by("quantity")), 400);
+    }
+
+    private CursorPage<InventoryDetails> page(InventoryQuery query, CursorDirection direction,
+                                              InventoryDetails cursor, int size) {
+        return data.inventories(query, direction, cursor, size);
+    }
+
+    private static List<Long> ids(CursorPage<InventoryDetails> page) {
+        return page.content().stream().map(InventoryDetails::getId).toList();
+    }
+
+    private static void assertStatus(Runnable call, int status) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(StandInException.class, e -> assertThat(e.getStatus()).isEqualTo(status));
+    }
+
+    private static StandInProperties properties(int items, int inventoriesPerItem) {
+        return new StandInProperties(8878, items, inventoriesPerItem, Duration.ZERO, Duration.ZERO, 0,
+                Duration.ZERO, Duration.ZERO);
+    }
+}